@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Collects sealed bids for a VM from a list of hosts implementing BiddingHost and
+ * reduces them to a single winner.
+ * The lowest bid wins, equal bids go through the TieBreak and then host list order,
+ * so every implementation returns the same winner for the same host state.
+ */
+public interface AuctionEngine {
+
+    AuctionOutcome runAuction(Vm vm, List<? extends Host> hosts, TieBreak tieBreak);
+}
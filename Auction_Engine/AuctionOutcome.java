@@ -0,0 +1,57 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The result of one sealed-bid auction for a VM.
+ * bids[i] holds the bid of the i-th host of the auctioned list, or NaN if that host
+ * was not suitable for the VM. The runner-up bid is the lowest bid of any host other
+ * than the winner, which second-price rules charge.
+ */
+public class AuctionOutcome {
+
+    private final Vm vm;
+    private final Host winner;
+    private final double winningBid;
+    private final double runnerUpBid;
+    private final boolean wonOnTieBreak;
+    private final double[] bids;
+
+    /**
+     * @param runnerUpBid lowest bid of the other hosts, Double.MAX_VALUE if no other host bid
+     */
+    public AuctionOutcome(Vm vm, Host winner, double winningBid, double runnerUpBid, boolean wonOnTieBreak, double[] bids) {
+        this.vm = vm;
+        this.winner = winner;
+        this.winningBid = winningBid;
+        this.runnerUpBid = runnerUpBid;
+        this.wonOnTieBreak = wonOnTieBreak;
+        this.bids = bids;
+    }
+
+    public Vm getVm() {
+        return vm;
+    }
+
+    public Host getWinner() {
+        return winner;
+    }
+
+    public double getWinningBid() {
+        return winningBid;
+    }
+
+    public double getRunnerUpBid() {
+        return runnerUpBid;
+    }
+
+    /** True if another host bid the same price and the tie-break decided the auction. */
+    public boolean isWonOnTieBreak() {
+        return wonOnTieBreak;
+    }
+
+    public double[] getBids() {
+        return bids;
+    }
+}
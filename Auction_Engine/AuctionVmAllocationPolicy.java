@@ -0,0 +1,113 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+
+/**
+ * Allocation policy that applies cleared auction results instead of choosing hosts itself.
+ *
+ * A broker reserves each winner on its host, which allocates the VM through the host's
+ * provisioners right away, so later auctions of the same batch see the capacity it took.
+ * The batch is then committed, or aborted to release every reservation. When the
+ * datacenter later processes the VM's create request the VM is already on its host and
+ * nothing is allocated a second time. VMs the auction declined are refused; VMs that
+ * never went through an auction fall back to VmAllocationPolicySimple.
+ */
+public class AuctionVmAllocationPolicy extends VmAllocationPolicySimple {
+
+    private final List<Vm> reserved = new ArrayList<>();
+    private final Set<String> declined = new HashSet<>();
+    private PlacementMetrics metrics;
+
+    public AuctionVmAllocationPolicy(List<? extends Host> list) {
+        super(list);
+    }
+
+    public void setMetrics(PlacementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Allocates the VM on the auction winner as part of the open batch.
+     *
+     * @return false if the host no longer has room; the batch stays open
+     */
+    public boolean reserve(Vm vm, Host host) {
+        if (getHost(vm) != null) {
+            return getHost(vm) == host;
+        }
+        if (!super.allocateHostForVm(vm, host)) {
+            return false;
+        }
+        reserved.add(vm);
+        declined.remove(vm.getUid());
+        return true;
+    }
+
+    /** Makes every reservation of the open batch final. */
+    public void commit() {
+        reserved.clear();
+    }
+
+    /** Releases every reservation of the open batch. */
+    public void abort() {
+        for (int i = reserved.size() - 1; i >= 0; i--) {
+            super.deallocateHostForVm(reserved.get(i));
+        }
+        reserved.clear();
+    }
+
+    /**
+     * Applies a cleared batch all or nothing: assignment[i] is the host that won vms[i],
+     * or null if the VM was not placed.
+     *
+     * @return true if every winner was allocated; otherwise nothing was and every VM of
+     *         the batch is declined, so none of them falls back to first-fit
+     */
+    public boolean commitBatch(List<? extends Vm> vms, Host[] assignment) {
+        for (int i = 0; i < vms.size(); i++) {
+            if (assignment[i] == null) {
+                decline(vms.get(i));
+            } else if (!reserve(vms.get(i), assignment[i])) {
+                abort();
+                for (Vm vm : vms) {
+                    decline(vm);
+                }
+                return false;
+            }
+        }
+        commit();
+        return true;
+    }
+
+    /** Marks a VM as lost in the auction, so its create request is refused. */
+    public void decline(Vm vm) {
+        declined.add(vm.getUid());
+    }
+
+    public int getReservedCount() {
+        return reserved.size();
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm) {
+        long start = System.nanoTime();
+        boolean allocated;
+        if (getHost(vm) != null) {
+            allocated = true; // placed by the auction
+        } else if (declined.contains(vm.getUid())) {
+            allocated = false;
+        } else {
+            allocated = super.allocateHostForVm(vm);
+        }
+        if (metrics != null) {
+            metrics.recordPlacement(System.nanoTime() - start, allocated);
+        }
+        return allocated;
+    }
+}
@@ -0,0 +1,17 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A host that takes part in sealed-bid VM placement auctions.
+ * Bids are asking prices, so the lowest bid wins. A host that does not want to
+ * take part returns Double.MAX_VALUE.
+ */
+public interface BiddingHost {
+
+    int getId();
+
+    boolean isSuitableForVm(Vm vm);
+
+    double generateBid();
+}
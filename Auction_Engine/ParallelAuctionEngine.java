@@ -0,0 +1,83 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Collects bids with a fork-join fan-out over the host list.
+ * Each leaf task handles a contiguous range of hosts and writes its bids into its own
+ * part of the bid array; partial winners and runner-up bids are merged left to right,
+ * so the outcome is the same one SerialAuctionEngine returns.
+ * Bidding only reads host state, so nothing else may change the hosts during an auction.
+ */
+public class ParallelAuctionEngine implements AuctionEngine {
+
+    public static final int DEFAULT_HOSTS_PER_TASK = 512;
+
+    private final ForkJoinPool pool;
+    private final int hostsPerTask;
+
+    public ParallelAuctionEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_HOSTS_PER_TASK);
+    }
+
+    public ParallelAuctionEngine(ForkJoinPool pool, int hostsPerTask) {
+        if (hostsPerTask < 1) {
+            throw new IllegalArgumentException("hostsPerTask must be at least 1");
+        }
+        this.pool = pool;
+        this.hostsPerTask = hostsPerTask;
+    }
+
+    @Override
+    public AuctionOutcome runAuction(Vm vm, List<? extends Host> hosts, TieBreak tieBreak) {
+        double[] bids = new double[hosts.size()];
+        Arrays.fill(bids, Double.NaN);
+        SerialAuctionEngine.Leader leader;
+        if (hosts.size() <= hostsPerTask) {
+            leader = SerialAuctionEngine.collectRange(vm, hosts, tieBreak, bids, 0, hosts.size());
+        } else {
+            leader = pool.invoke(new CollectBids(vm, hosts, tieBreak, bids, 0, hosts.size()));
+        }
+        return SerialAuctionEngine.toOutcome(vm, hosts, bids, leader);
+    }
+
+    private class CollectBids extends RecursiveTask<SerialAuctionEngine.Leader> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Vm vm;
+        private final List<? extends Host> hosts;
+        private final TieBreak tieBreak;
+        private final double[] bids;
+        private final int from;
+        private final int to;
+
+        CollectBids(Vm vm, List<? extends Host> hosts, TieBreak tieBreak, double[] bids, int from, int to) {
+            this.vm = vm;
+            this.hosts = hosts;
+            this.tieBreak = tieBreak;
+            this.bids = bids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SerialAuctionEngine.Leader compute() {
+            if (to - from <= hostsPerTask) {
+                return SerialAuctionEngine.collectRange(vm, hosts, tieBreak, bids, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            CollectBids left = new CollectBids(vm, hosts, tieBreak, bids, from, mid);
+            CollectBids right = new CollectBids(vm, hosts, tieBreak, bids, mid, to);
+            right.fork();
+            SerialAuctionEngine.Leader leftLeader = left.compute();
+            SerialAuctionEngine.Leader rightLeader = right.join();
+            return SerialAuctionEngine.merge(hosts, tieBreak, bids, leftLeader, rightLeader);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Locale;
+
+/**
+ * Decides what the winner of a sealed-bid auction is charged, from the winning bid and
+ * the runner-up bid that the auction tracks in the same pass as the winner.
+ *
+ * A reserve price caps the bids that may win: when even the lowest bid is above it
+ * nobody wins, and a lone bid below it pays the reserve under the second-price rules.
+ */
+public interface PricingRule {
+
+    /** The flat charge the token auctions have always deducted. */
+    double DEFAULT_FIXED_PRICE = 25.0;
+
+    PricingRule FIXED = fixed(DEFAULT_FIXED_PRICE);
+
+    /** The winner pays its own bid. */
+    PricingRule FIRST_PRICE = (winningBid, runnerUpBid) -> winningBid;
+
+    /** Vickrey: the winner pays the runner-up bid, or its own bid if nobody else bid. */
+    PricingRule SECOND_PRICE = (winningBid, runnerUpBid) -> runnerUpBid == Double.MAX_VALUE ? winningBid : runnerUpBid;
+
+    /**
+     * VCG on the resource bundle: the winner pays the cost its win imposes on the others.
+     * Each host bids on the whole CPU, RAM, BW and storage bundle and only one host can
+     * take it, so that cost is the best bundle bid among the other hosts.
+     */
+    PricingRule VCG = SECOND_PRICE;
+
+    /**
+     * @param runnerUpBid lowest bid of the other hosts, Double.MAX_VALUE if no other host bid
+     */
+    double price(double winningBid, double runnerUpBid);
+
+    /** The highest bid that may still win; Double.MAX_VALUE if there is no reserve. */
+    default double getReservePrice() {
+        return Double.MAX_VALUE;
+    }
+
+    /** Whether a winning bid clears the reserve. */
+    default boolean accepts(double winningBid) {
+        return winningBid <= getReservePrice();
+    }
+
+    static PricingRule fixed(double price) {
+        return (winningBid, runnerUpBid) -> price;
+    }
+
+    /**
+     * The same rule with a reserve price: bids above it cannot win, and the runner-up
+     * bid is capped at it.
+     */
+    static PricingRule withReserve(PricingRule rule, double reserve) {
+        return new PricingRule() {
+            @Override
+            public double price(double winningBid, double runnerUpBid) {
+                return rule.price(winningBid, Math.min(runnerUpBid, reserve));
+            }
+
+            @Override
+            public double getReservePrice() {
+                return reserve;
+            }
+        };
+    }
+
+    /**
+     * The rule named by -Dauction.pricing (fixed, first, second or vcg; default fixed) with
+     * the reserve from -Dauction.reserve, if set. -Dauction.price sets the fixed charge.
+     */
+    static PricingRule fromSystemProperties() {
+        String name = System.getProperty("auction.pricing", "fixed").toLowerCase(Locale.ROOT);
+        PricingRule rule;
+        switch (name) {
+            case "fixed":
+                rule = fixed(Double.parseDouble(System.getProperty("auction.price", String.valueOf(DEFAULT_FIXED_PRICE))));
+                break;
+            case "first":
+                rule = FIRST_PRICE;
+                break;
+            case "second":
+                rule = SECOND_PRICE;
+                break;
+            case "vcg":
+                rule = VCG;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pricing rule: " + name);
+        }
+        String reserve = System.getProperty("auction.reserve");
+        return reserve == null ? rule : withReserve(rule, Double.parseDouble(reserve));
+    }
+}
@@ -0,0 +1,95 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Arrays;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Asks every host for its bid one after another on the calling thread.
+ */
+public class SerialAuctionEngine implements AuctionEngine {
+
+    @Override
+    public AuctionOutcome runAuction(Vm vm, List<? extends Host> hosts, TieBreak tieBreak) {
+        double[] bids = new double[hosts.size()];
+        Arrays.fill(bids, Double.NaN);
+        Leader leader = collectRange(vm, hosts, tieBreak, bids, 0, hosts.size());
+        return toOutcome(vm, hosts, bids, leader);
+    }
+
+    /**
+     * Collects the bids of hosts [from, to) into bids and returns the best one and the
+     * runner-up bid of the range, found in the same pass.
+     */
+    static Leader collectRange(Vm vm, List<? extends Host> hosts, TieBreak tieBreak, double[] bids, int from, int to) {
+        int best = -1;
+        double runnerUp = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            BiddingHost biddingHost = (BiddingHost) hosts.get(i);
+            if (biddingHost.isSuitableForVm(vm)) {
+                bids[i] = biddingHost.generateBid();
+                int winner = better(hosts, tieBreak, bids, best, i);
+                int loser = winner == i ? best : i;
+                if (loser >= 0 && bids[loser] < runnerUp) {
+                    runnerUp = bids[loser];
+                }
+                best = winner;
+            }
+        }
+        return new Leader(best, runnerUp);
+    }
+
+    /**
+     * Merges the leaders of two adjacent ranges, left before right in the list.
+     */
+    static Leader merge(List<? extends Host> hosts, TieBreak tieBreak, double[] bids, Leader left, Leader right) {
+        int best = better(hosts, tieBreak, bids, left.best, right.best);
+        int loser = best == left.best ? right.best : left.best;
+        double runnerUp = Math.min(left.runnerUp, right.runnerUp);
+        if (loser >= 0 && bids[loser] < runnerUp) {
+            runnerUp = bids[loser];
+        }
+        return new Leader(best, runnerUp);
+    }
+
+    /**
+     * Picks the better of two candidate indices, where first comes before second in the list.
+     * A Double.MAX_VALUE bid means the host abstains and never wins.
+     */
+    static int better(List<? extends Host> hosts, TieBreak tieBreak, double[] bids, int first, int second) {
+        if (second < 0 || bids[second] == Double.MAX_VALUE) {
+            return first;
+        }
+        if (first < 0 || bids[second] < bids[first]) {
+            return second;
+        }
+        if (bids[second] == bids[first] && tieBreak.prefers(hosts.get(second), hosts.get(first))) {
+            return second;
+        }
+        return first;
+    }
+
+    static AuctionOutcome toOutcome(Vm vm, List<? extends Host> hosts, double[] bids, Leader leader) {
+        if (leader.best < 0) {
+            return new AuctionOutcome(vm, null, Double.MAX_VALUE, Double.MAX_VALUE, false, bids);
+        }
+        double winningBid = bids[leader.best];
+        return new AuctionOutcome(vm, hosts.get(leader.best), winningBid, leader.runnerUp, leader.runnerUp == winningBid, bids);
+    }
+
+    /**
+     * The best host of a range of the host list, -1 if none bid, and the lowest bid of
+     * the other hosts in the range, Double.MAX_VALUE if there is none.
+     */
+    static final class Leader {
+
+        final int best;
+        final double runnerUp;
+
+        Leader(int best, double runnerUp) {
+            this.best = best;
+            this.runnerUp = runnerUp;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * Decides between two hosts that submitted the same bid.
+ * It must be a strict preference: if neither host is preferred, the host that comes
+ * first in the host list keeps the win. That keeps serial and parallel auctions equal.
+ */
+public interface TieBreak {
+
+    /** No preference; the host that comes first in the host list wins. */
+    TieBreak FIRST_IN_LIST = (challenger, incumbent) -> false;
+
+    boolean prefers(Host challenger, Host incumbent);
+}
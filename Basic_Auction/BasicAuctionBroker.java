@@ -5,47 +5,115 @@ import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
 
 public class BasicAuctionBroker extends DatacenterBroker {
 
+    private AuctionEngine auctionEngine = new SerialAuctionEngine();
+    private AuctionVmAllocationPolicy allocationPolicy;
+    private PlacementMetrics metrics;
+    private PricingRule pricingRule = PricingRule.FIXED;
+    private double totalCharged;
+    private HostCapacityIndex capacityIndex;
+
     public BasicAuctionBroker(String name) throws Exception {
         super(name);
     }
 
+    public void setAuctionEngine(AuctionEngine auctionEngine) {
+        this.auctionEngine = auctionEngine;
+    }
+
+    /**
+     * Reserves every winner on its host through the datacenter's policy as the auctions run,
+     * so each auction sees the capacity taken by the earlier ones, and commits the batch at
+     * the end. A winner that can no longer take its VM declines it. Without a policy the
+     * winner is only recorded on the VM.
+     */
+    public void setAllocationPolicy(AuctionVmAllocationPolicy allocationPolicy) {
+        this.allocationPolicy = allocationPolicy;
+    }
+
+    public void setMetrics(PlacementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** What each winner is charged; PricingRule.FIXED by default. */
+    public void setPricingRule(PricingRule pricingRule) {
+        this.pricingRule = pricingRule;
+    }
+
+    /** Sum of the charges of all auctions won so far. */
+    public double getTotalCharged() {
+        return totalCharged;
+    }
+
     public void placeVmsUsingAuction(List<Host> hostList) {
+        // Only hosts with the free capacity for a VM take part in its auction
+        if (capacityIndex == null || capacityIndex.getHosts() != hostList) {
+            if (capacityIndex != null) {
+                capacityIndex.untrackHosts();
+            }
+            capacityIndex = new HostCapacityIndex(hostList);
+        }
          for (Object vmObject : this.vmList) {
             if (vmObject instanceof Vm) {
                 Vm vm = (Vm) vmObject;
-                Host winningHost = null;
-                double lowestBid = Double.MAX_VALUE;
-
-                for (Host host : hostList) {
-                    BasicBiddingHost biddingHost = (BasicBiddingHost) host;
-                    if (biddingHost.isSuitableForVm(vm)) {
-                        double currentBid = biddingHost.generateBid();
-                        Log.printLine(String.format("VM #%d: Host #%d bids %.2f", vm.getId(), host.getId(), currentBid));
-                        if (currentBid < lowestBid) {
-                            lowestBid = currentBid;
-                            winningHost = host;
-                        }
-                    }
+                long start = System.nanoTime();
+                List<Host> candidates = capacityIndex.candidates(vm);
+                AuctionOutcome outcome = auctionEngine.runAuction(vm, candidates, TieBreak.FIRST_IN_LIST);
+                if (metrics != null) {
+                    metrics.recordAuction(outcome, System.nanoTime() - start);
                 }
-                if (winningHost != null) {
-                    Log.printLine(String.format("VM #%d auction won by Host #%d with bid %.2f", vm.getId(), winningHost.getId(), lowestBid));
-                    vm.setHost(winningHost);
+                logBids(vm, outcome.getBids(), candidates);
+                double lowestBid = outcome.getWinningBid();
+                boolean underReserve = outcome.getWinner() == null || pricingRule.accepts(lowestBid);
+                if (!underReserve) {
+                    AuctionLog.info(() -> String.format("VM #%d: lowest bid %.2f is above the reserve price %.2f", vm.getId(), lowestBid, pricingRule.getReservePrice()));
+                }
+                Host winningHost = underReserve ? outcome.getWinner() : null;
+                if (winningHost != null && allocationPolicy != null && !allocationPolicy.reserve(vm, winningHost)) {
+                    // Declined rather than left to first-fit; the rest of the batch still runs
+                    Log.printLine(String.format("VM #%d: Host #%d could not allocate it; the VM is declined.", vm.getId(), winningHost.getId()));
+                    AuctionLog.recordNoWinner(CloudSim.clock(), vm.getId());
+                    allocationPolicy.decline(vm);
+                } else if (winningHost != null) {
+                    double charge = pricingRule.price(lowestBid, outcome.getRunnerUpBid());
+                    totalCharged += charge;
+                    AuctionLog.recordWin(CloudSim.clock(), vm.getId(), winningHost.getId(), lowestBid, outcome.isWonOnTieBreak());
+                    AuctionLog.info(() -> String.format("VM #%d auction won by Host #%d with bid %.2f, charged %.2f", vm.getId(), winningHost.getId(), lowestBid, charge));
+                    if (allocationPolicy == null) {
+                        vm.setHost(winningHost);
+                    }
                 } else {
-                    Log.printLine(String.format("VM #%d: No suitable host found in auction.", vm.getId()));
+                    AuctionLog.recordNoWinner(CloudSim.clock(), vm.getId());
+                    AuctionLog.info(() -> String.format("VM #%d: No suitable host found in auction.", vm.getId()));
+                    if (allocationPolicy != null) {
+                        allocationPolicy.decline(vm);
+                    }
                 }
             }
         }
+        if (allocationPolicy != null) {
+            allocationPolicy.commit();
+        }
     }
 
-    /*
-     This overridden method prevents the broker from destroying VMs, so we can read the final host utilization for our energy calculation.
-     */
-    @Override
-    protected void clearDatacenters() {
-        // Intentionally left empty
+    // Every bid goes to the trace, and to the log at DEBUG
+    private void logBids(Vm vm, double[] bids, List<Host> hostList) {
+        boolean print = AuctionLog.isEnabled(AuctionLog.Level.DEBUG);
+        if (!print && !AuctionLog.isTracing()) {
+            return;
+        }
+        double now = CloudSim.clock();
+        for (int i = 0; i < bids.length; i++) {
+            if (!Double.isNaN(bids[i])) {
+                AuctionLog.recordBid(now, vm.getId(), hostList.get(i).getId(), bids[i]);
+                if (print) {
+                    Log.printLine(String.format("VM #%d: Host #%d bids %.2f", vm.getId(), hostList.get(i).getId(), bids[i]));
+                }
+            }
+        }
     }
 
 }
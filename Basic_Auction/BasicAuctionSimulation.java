@@ -1,25 +1,18 @@
 package org.cloudbus.cloudsim.examples;
 
 import java.text.DecimalFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.List;
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
-import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
-import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
 public class BasicAuctionSimulation {
 
     private static List<Cloudlet> cloudletList;
     private static List<Vm> vmlist;
     private static List<Host> hostList;
-
-    private static final int NUM_HOSTS = 2;
-    private static final int NUM_VMS = 5;
-    private static final int NUM_CLOUDLETS = 10;
+    private static EnergyMeter energyMeter;
+    private static AuctionVmAllocationPolicy allocationPolicy;
 
     
     private static final double HOST_POWER_IDLE = 100;
@@ -30,17 +23,29 @@ public class BasicAuctionSimulation {
 
         try {
             CloudSim.init(1, Calendar.getInstance(), false);
-            Datacenter datacenter0 = createDatacenter("Datacenter_0");
+            AuctionLog.startTrace();
+            ScenarioBuilder scenario = new ScenarioBuilder(ScenarioRunner.loadSpec(args.length > 0 ? args[0] : "uniform"));
+            Datacenter datacenter0 = createDatacenter("Datacenter_0", scenario);
+            ConsolidationEngine consolidation = new ConsolidationEngine("Consolidation", datacenter0.getId(), hostList);
+            consolidation.setEnergyMeter(energyMeter);
+            consolidation.setTargetRule(ConsolidationEngine.TargetRule.REVERSE_AUCTION);
             
             BasicAuctionBroker broker = new BasicAuctionBroker("AuctionBroker");
             int brokerId = broker.getId();
-
-            vmlist = createVmList(brokerId);
+            broker.setAllocationPolicy(allocationPolicy);
+            PlacementMetrics metrics = new PlacementMetrics();
+            MetricsExporter exporter = MetricsExporter.fromSystemProperties(metrics.getRegistry());
+            broker.setMetrics(metrics);
+            broker.setPricingRule(PricingRule.fromSystemProperties());
+            allocationPolicy.setMetrics(metrics);
+
+            vmlist = scenario.createVms(brokerId);
             broker.submitGuestList(vmlist);
-            cloudletList = createCloudletList(brokerId);
+            cloudletList = scenario.createCloudlets(brokerId);
             broker.submitCloudletList(cloudletList);
 
             broker.placeVmsUsingAuction(hostList);
+            Log.printLine(String.format("Total charged to auction winners: %.2f", broker.getTotalCharged()));
 
             double lastClock = CloudSim.startSimulation();
 
@@ -48,7 +53,12 @@ public class BasicAuctionSimulation {
             printCloudletList(newList);
 
             
-            calculateAndPrintEnergy(hostList, lastClock);
+            energyMeter.finish(lastClock);
+            energyMeter.printReport();
+            metrics.printSummary();
+            exporter.close();
+            AuctionLog.closeTrace();
+            consolidation.printReport();
 
             CloudSim.stopSimulation();
             Log.printLine("BasicAuctionSimulation finished!");
@@ -57,69 +67,20 @@ public class BasicAuctionSimulation {
         }
     }
 
-    private static Datacenter createDatacenter(String name) {
-        hostList = new ArrayList<>();
-        for (int i = 0; i < NUM_HOSTS; i++) {
-            List<Pe> peList = new ArrayList<>();
-            peList.add(new Pe(0, new PeProvisionerSimple(2000)));
-            peList.add(new Pe(1, new PeProvisionerSimple(2000)));
-            
-            hostList.add(
-                new BasicBiddingHost(
-                    i,
-                    new RamProvisionerSimple(8192),
-                    new BwProvisionerSimple(10000),
-                    1000000,
-                    peList,
-                    new VmSchedulerTimeShared(peList)
-                )
-            );
-        }
+    private static Datacenter createDatacenter(String name, ScenarioBuilder scenario) {
+        hostList = scenario.createHosts(ScenarioBuilder.HostKind.BASIC_BIDDING);
 
         Datacenter datacenter = null;
         try {
-            DatacenterCharacteristics characteristics = new DatacenterCharacteristics("x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
-            datacenter = new Datacenter(name, characteristics, new VmAllocationPolicySimple(hostList), new LinkedList<Storage>(), 0);
+            energyMeter = new EnergyMeter(hostList, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+            allocationPolicy = new AuctionVmAllocationPolicy(hostList);
+            datacenter = ScenarioBuilder.createDatacenter(name, hostList, allocationPolicy, energyMeter);
         } catch (Exception e) {
             e.printStackTrace();
         }
         return datacenter;
     }
     
-    private static void calculateAndPrintEnergy(List<Host> hostList, double simulationTime) {
-        double totalEnergyKWh = 0;
-        for (Host host : hostList) {
-            double utilizationPercent = (host.getTotalMips() - host.getVmScheduler().getAvailableMips()) / host.getTotalMips();
-            double powerDrawnWatts = HOST_POWER_IDLE + (HOST_POWER_FULL - HOST_POWER_IDLE) * utilizationPercent;
-            double energyConsumedWs = powerDrawnWatts * simulationTime;
-            double energyConsumedKWh = energyConsumedWs / 3600000;
-            totalEnergyKWh += energyConsumedKWh;
-
-            Log.printLine(String.format("Host #%d final utilization is %.2f%%, consuming %.4f kWh", host.getId(), utilizationPercent * 100, energyConsumedKWh));
-        }
-        Log.printLine(String.format("Total Energy Consumption for all hosts: %.4f kWh", totalEnergyKWh));
-    }
-
- 
-    private static List<Vm> createVmList(int brokerId) {
-        List<Vm> list = new ArrayList<>();
-        for (int i = 0; i < NUM_VMS; i++) {
-            Vm vm = new Vm(i, brokerId, 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
-            list.add(vm);
-        }
-        return list;
-    }
-
-    private static List<Cloudlet> createCloudletList(int brokerId) {
-        List<Cloudlet> list = new ArrayList<>();
-        for (int i = 0; i < NUM_CLOUDLETS; i++) {
-            Cloudlet cloudlet = new Cloudlet(i, 400000, 1, 300, 300, new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
-            cloudlet.setUserId(brokerId);
-            list.add(cloudlet);
-        }
-        return list;
-    }
-    
     private static void printCloudletList(List<Cloudlet> list) {
         String indent = "    ";
         Log.printLine();
@@ -1,24 +1,23 @@
 package org.cloudbus.cloudsim.examples;
 
 import java.util.List;
-import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
 
-public class BasicBiddingHost extends Host {
+public class BasicBiddingHost extends TrackedHost implements BiddingHost {
 
     public BasicBiddingHost(int id, RamProvisioner ramProvisioner, BwProvisioner bwProvisioner, long storage, List<? extends Pe> peList, VmScheduler vmScheduler) {
         super(id, ramProvisioner, bwProvisioner, storage, peList, vmScheduler);
     }
 
-    
+    @Override
     public double generateBid() {
         double baseCost = 100.0; 
         // Calculate current utilization as a percentage 
-        double utilizationPercent = (getTotalMips() - getVmScheduler().getAvailableMips()) / getTotalMips();
+        double utilizationPercent = getCpuUtilization();
         return baseCost + (utilizationPercent * 100);
     }
 
@@ -0,0 +1,236 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of an online auction simulation at one simulated time: the clock, every
+ * host's token balance, every live VM with the host it holds (or none while it waits
+ * in the batch window) and the work its cloudlet has left, and the arrival stream's
+ * position including its random generator state.
+ *
+ * The snapshot is written as fixed-width big-endian fields, one record per host and
+ * per VM, so writing and reading it is a single sequential pass. Hosts are identified
+ * by their index in the host list, so a snapshot can only be restored onto a host list
+ * built from the same scenario.
+ */
+public class AuctionCheckpoint {
+
+    static final int MAGIC = 0x41434b50; // "ACKP"
+    static final int VERSION = 1;
+
+    private final double clock;
+    private final double traceOrigin;
+    private final int nextVmId;
+    private final double windowClose;
+    private final long traceRecords;
+    private final double[] tokenBalances;
+    private final byte[] sourceState;
+    private final WorkloadItem pendingItem;
+    private final List<VmState> vms;
+
+    /**
+     * @param windowClose simulation time the open batch window closes, NaN if none is open
+     * @param traceRecords auction trace records written before the snapshot was taken
+     * @param tokenBalances balance per host index, NaN for hosts without tokens
+     */
+    public AuctionCheckpoint(double clock, double traceOrigin, int nextVmId, double windowClose, long traceRecords,
+            double[] tokenBalances, byte[] sourceState, WorkloadItem pendingItem, List<VmState> vms) {
+        this.clock = clock;
+        this.traceOrigin = traceOrigin;
+        this.nextVmId = nextVmId;
+        this.windowClose = windowClose;
+        this.traceRecords = traceRecords;
+        this.tokenBalances = tokenBalances;
+        this.sourceState = sourceState;
+        this.pendingItem = pendingItem;
+        this.vms = Collections.unmodifiableList(vms);
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeDouble(clock);
+            out.writeDouble(traceOrigin);
+            out.writeInt(nextVmId);
+            out.writeDouble(windowClose);
+            out.writeLong(traceRecords);
+            out.writeInt(tokenBalances.length);
+            for (double balance : tokenBalances) {
+                out.writeDouble(balance);
+            }
+            out.writeInt(sourceState.length);
+            out.write(sourceState);
+            out.writeBoolean(pendingItem != null);
+            if (pendingItem != null) {
+                writeItem(out, pendingItem);
+            }
+            out.writeInt(vms.size());
+            for (VmState vm : vms) {
+                out.writeInt(vm.id);
+                out.writeInt(vm.hostIndex);
+                out.writeDouble(vm.arrivalTime);
+                out.writeLong(vm.remainingLength);
+                writeItem(out, vm.item);
+            }
+        }
+    }
+
+    public static AuctionCheckpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not an auction checkpoint");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has checkpoint format version " + version + ", expected " + VERSION);
+            }
+            double clock = in.readDouble();
+            double traceOrigin = in.readDouble();
+            int nextVmId = in.readInt();
+            double windowClose = in.readDouble();
+            long traceRecords = in.readLong();
+            double[] balances = new double[in.readInt()];
+            for (int h = 0; h < balances.length; h++) {
+                balances[h] = in.readDouble();
+            }
+            byte[] sourceState = new byte[in.readInt()];
+            in.readFully(sourceState);
+            WorkloadItem pending = in.readBoolean() ? readItem(in) : null;
+            int count = in.readInt();
+            List<VmState> vms = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int hostIndex = in.readInt();
+                double arrivalTime = in.readDouble();
+                long remainingLength = in.readLong();
+                vms.add(new VmState(id, hostIndex, arrivalTime, remainingLength, readItem(in)));
+            }
+            return new AuctionCheckpoint(clock, traceOrigin, nextVmId, windowClose, traceRecords, balances, sourceState,
+                    pending, vms);
+        }
+    }
+
+    private static void writeItem(DataOutputStream out, WorkloadItem item) throws IOException {
+        out.writeDouble(item.getSubmitTime());
+        out.writeInt(item.getPes());
+        out.writeDouble(item.getMips());
+        out.writeInt(item.getRam());
+        out.writeLong(item.getBw());
+        out.writeLong(item.getSize());
+        out.writeDouble(item.getDuration());
+        out.writeDouble(item.getSeriesInterval());
+        float[] series = item.getCpuSeries();
+        out.writeInt(series.length);
+        for (float sample : series) {
+            out.writeFloat(sample);
+        }
+    }
+
+    private static WorkloadItem readItem(DataInputStream in) throws IOException {
+        double submitTime = in.readDouble();
+        int pes = in.readInt();
+        double mips = in.readDouble();
+        int ram = in.readInt();
+        long bw = in.readLong();
+        long size = in.readLong();
+        double duration = in.readDouble();
+        double interval = in.readDouble();
+        float[] series = new float[in.readInt()];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = in.readFloat();
+        }
+        return new WorkloadItem(submitTime, pes, mips, ram, bw, size, duration, series, interval);
+    }
+
+    /** Simulation time the snapshot was taken; a restored run's time 0 corresponds to it. */
+    public double getClock() {
+        return clock;
+    }
+
+    public double getTraceOrigin() {
+        return traceOrigin;
+    }
+
+    public int getNextVmId() {
+        return nextVmId;
+    }
+
+    public double getWindowClose() {
+        return windowClose;
+    }
+
+    public long getTraceRecords() {
+        return traceRecords;
+    }
+
+    public double[] getTokenBalances() {
+        return tokenBalances;
+    }
+
+    public byte[] getSourceState() {
+        return sourceState;
+    }
+
+    public WorkloadItem getPendingItem() {
+        return pendingItem;
+    }
+
+    public List<VmState> getVms() {
+        return vms;
+    }
+
+    /**
+     * One live VM: its request, where it runs and how much of its cloudlet is left.
+     */
+    public static class VmState {
+
+        private final int id;
+        private final int hostIndex;
+        private final double arrivalTime;
+        private final long remainingLength;
+        private final WorkloadItem item;
+
+        /**
+         * @param hostIndex index of the VM's host in the host list, -1 while it waits for an auction
+         * @param arrivalTime simulation time the VM was requested
+         * @param remainingLength cloudlet length still to run
+         */
+        public VmState(int id, int hostIndex, double arrivalTime, long remainingLength, WorkloadItem item) {
+            this.id = id;
+            this.hostIndex = hostIndex;
+            this.arrivalTime = arrivalTime;
+            this.remainingLength = remainingLength;
+            this.item = item;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getHostIndex() {
+            return hostIndex;
+        }
+
+        public double getArrivalTime() {
+            return arrivalTime;
+        }
+
+        public long getRemainingLength() {
+            return remainingLength;
+        }
+
+        public WorkloadItem getItem() {
+            return item;
+        }
+    }
+}
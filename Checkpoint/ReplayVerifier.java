@@ -0,0 +1,75 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Checks that a run replayed the decisions of a recorded run by comparing their auction
+ * traces event by event. Without a checkpoint both traces are compared from the start;
+ * with one, the recorded trace is compared from the point the checkpoint was taken and
+ * the replayed trace's times are shifted by the checkpoint's clock.
+ *
+ * <pre>
+ * java ReplayVerifier recorded.bin replayed.bin [checkpoint.bin]
+ * </pre>
+ */
+public class ReplayVerifier {
+
+    private static final double TIME_TOLERANCE = 1e-6;
+
+    private ReplayVerifier() {
+    }
+
+    /**
+     * @param skip events of the recorded trace to pass over first
+     * @param offset added to the replayed trace's times
+     * @return a description of the first difference, or null if the traces match
+     */
+    public static String compare(Path recorded, Path replayed, long skip, double offset) throws IOException {
+        try (AuctionTraceReader expected = new AuctionTraceReader(recorded);
+                AuctionTraceReader actual = new AuctionTraceReader(replayed)) {
+            for (long i = 0; i < skip; i++) {
+                if (!expected.next()) {
+                    return "The recorded trace ends before the checkpoint";
+                }
+            }
+            for (long event = 0; ; event++) {
+                boolean hasExpected = expected.next();
+                boolean hasActual = actual.next();
+                if (!hasExpected || !hasActual) {
+                    return hasExpected == hasActual ? null
+                            : String.format("The %s trace ends after %d events", hasExpected ? "replayed" : "recorded", event);
+                }
+                if (expected.getKind() != actual.getKind() || expected.getVmId() != actual.getVmId()
+                        || expected.getHostId() != actual.getHostId()
+                        || Math.abs(expected.getTime() - (actual.getTime() + offset)) > TIME_TOLERANCE
+                        || Double.compare(expected.getValue(), actual.getValue()) != 0) {
+                    return String.format(Locale.ROOT, "Event %d differs: recorded %s, replayed %s", event,
+                            describe(expected, 0), describe(actual, offset));
+                }
+            }
+        }
+    }
+
+    private static String describe(AuctionTraceReader reader, double offset) {
+        return String.format(Locale.ROOT, "%.2f %s VM #%d Host #%d %.4f", reader.getTime() + offset, reader.getKind(),
+                reader.getVmId(), reader.getHostId(), reader.getValue());
+    }
+
+    public static void main(String[] args) throws IOException {
+        long skip = 0;
+        double offset = 0;
+        if (args.length > 2) {
+            AuctionCheckpoint checkpoint = AuctionCheckpoint.read(Paths.get(args[2]));
+            skip = checkpoint.getTraceRecords();
+            offset = checkpoint.getClock();
+        }
+        String difference = compare(Paths.get(args[0]), Paths.get(args[1]), skip, offset);
+        System.out.println(difference == null ? "The replay matches the recording" : difference);
+        if (difference != null) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A group of validators agreeing on placement blocks, led by validator 0.
+ *
+ * Blocks are queued with submit() (or straight from a PlacementLedger as they are sealed)
+ * and proposed in order. Up to pipelineDepth proposals are in flight at a time; the next
+ * one is proposed as soon as an earlier block is final.
+ */
+public class ConsensusCluster implements LedgerBlockListener {
+
+    private final ConsensusProtocol protocol;
+    private final InProcessNetwork network;
+    private final Validator[] validators;
+    private final int pipelineDepth;
+    private final int commitsToFinalize;
+
+    private final ArrayDeque<Proposal> backlog = new ArrayDeque<>();
+    private final Map<Long, Proposal> inFlight = new HashMap<>();
+
+    private double[] latencies = new double[64];
+    private int finalized;
+    private long transactions;
+
+    private static class Proposal {
+        final long height;
+        final byte[] digest;
+        final int transactionCount;
+        double proposeTime;
+        int localCommits;
+
+        Proposal(long height, byte[] digest, int transactionCount) {
+            this.height = height;
+            this.digest = digest;
+            this.transactionCount = transactionCount;
+        }
+    }
+
+    public ConsensusCluster(ConsensusProtocol protocol, int validatorCount, int pipelineDepth, InProcessNetwork network) {
+        if (validatorCount < 1 || pipelineDepth < 1) {
+            throw new IllegalArgumentException("Need at least one validator and a pipeline depth of at least one");
+        }
+        this.protocol = protocol;
+        this.network = network;
+        this.pipelineDepth = pipelineDepth;
+        this.commitsToFinalize = protocol.commitsToFinalize(validatorCount);
+        this.validators = new Validator[validatorCount];
+        for (int i = 0; i < validatorCount; i++) {
+            validators[i] = protocol.createValidator(i, validatorCount, network, this);
+        }
+        network.attach(validators);
+    }
+
+    @Override
+    public void onBlockSealed(long height, byte[] blockHash, int transactionCount) {
+        submit(height, blockHash, transactionCount);
+    }
+
+    /**
+     * Queues a block for agreement. Blocks must be submitted in height order.
+     */
+    public void submit(long height, byte[] digest, int transactionCount) {
+        backlog.add(new Proposal(height, digest, transactionCount));
+        fillPipeline();
+    }
+
+    /**
+     * Runs the network until every queued block is final.
+     */
+    public ConsensusReport run() {
+        long start = System.nanoTime();
+        double startClock = network.getClock();
+        int startFinalized = finalized;
+        long startTransactions = transactions;
+        long startMessages = network.getMessagesDelivered();
+        network.runUntilIdle();
+        double[] sorted = Arrays.copyOfRange(latencies, startFinalized, finalized);
+        Arrays.sort(sorted);
+        return new ConsensusReport(protocol, validators.length, pipelineDepth, finalized - startFinalized, transactions - startTransactions,
+                network.getClock() - startClock, sorted, network.getMessagesDelivered() - startMessages, System.nanoTime() - start);
+    }
+
+    void onLocalCommit(int validatorId, long height) {
+        Proposal proposal = inFlight.get(height);
+        if (proposal == null || ++proposal.localCommits < commitsToFinalize) {
+            return;
+        }
+        inFlight.remove(height);
+        if (finalized == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[finalized++] = network.getNow() - proposal.proposeTime;
+        transactions += proposal.transactionCount;
+        fillPipeline();
+    }
+
+    private void fillPipeline() {
+        while (inFlight.size() < pipelineDepth && !backlog.isEmpty()) {
+            Proposal next = backlog.poll();
+            next.proposeTime = network.getNow();
+            inFlight.put(next.height, next);
+            validators[0].propose(next.height, next.digest);
+        }
+    }
+
+    public int getFinalizedBlocks() {
+        return finalized;
+    }
+}
@@ -0,0 +1,53 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * A message in flight on the InProcessNetwork. The digest identifies the proposed block.
+ */
+public class ConsensusMessage {
+
+    private final MessageType type;
+    private final int from;
+    private final int to;
+    private final long height;
+    private final byte[] digest;
+    private final double deliveryTime;
+    private final long sequence;
+
+    ConsensusMessage(MessageType type, int from, int to, long height, byte[] digest, double deliveryTime, long sequence) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.height = height;
+        this.digest = digest;
+        this.deliveryTime = deliveryTime;
+        this.sequence = sequence;
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public byte[] getDigest() {
+        return digest;
+    }
+
+    public double getDeliveryTime() {
+        return deliveryTime;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+}
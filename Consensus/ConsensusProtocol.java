@@ -0,0 +1,36 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Available consensus protocols and how many local commits make a block final.
+ */
+public enum ConsensusProtocol {
+
+    PBFT {
+        @Override
+        Validator createValidator(int id, int validatorCount, InProcessNetwork network, ConsensusCluster cluster) {
+            return new PbftValidator(id, validatorCount, network, cluster);
+        }
+
+        @Override
+        int commitsToFinalize(int validatorCount) {
+            return 2 * ((validatorCount - 1) / 3) + 1;
+        }
+    },
+
+    RAFT {
+        @Override
+        Validator createValidator(int id, int validatorCount, InProcessNetwork network, ConsensusCluster cluster) {
+            return new RaftValidator(id, validatorCount, network, cluster);
+        }
+
+        @Override
+        int commitsToFinalize(int validatorCount) {
+            // Only the leader reports the commit.
+            return 1;
+        }
+    };
+
+    abstract Validator createValidator(int id, int validatorCount, InProcessNetwork network, ConsensusCluster cluster);
+
+    abstract int commitsToFinalize(int validatorCount);
+}
@@ -0,0 +1,70 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Throughput and commit latency of one consensus run. Times are in virtual seconds of the
+ * InProcessNetwork, except the wall-clock time spent simulating it.
+ */
+public class ConsensusReport {
+
+    private final ConsensusProtocol protocol;
+    private final int validators;
+    private final int pipelineDepth;
+    private final int blocks;
+    private final long transactions;
+    private final double virtualSeconds;
+    private final double[] sortedLatencies;
+    private final long messages;
+    private final long wallNanos;
+
+    ConsensusReport(ConsensusProtocol protocol, int validators, int pipelineDepth, int blocks, long transactions,
+            double virtualSeconds, double[] sortedLatencies, long messages, long wallNanos) {
+        this.protocol = protocol;
+        this.validators = validators;
+        this.pipelineDepth = pipelineDepth;
+        this.blocks = blocks;
+        this.transactions = transactions;
+        this.virtualSeconds = virtualSeconds;
+        this.sortedLatencies = sortedLatencies;
+        this.messages = messages;
+        this.wallNanos = wallNanos;
+    }
+
+    public double getBlocksPerSecond() {
+        return virtualSeconds > 0 ? blocks / virtualSeconds : 0;
+    }
+
+    public double getTransactionsPerSecond() {
+        return virtualSeconds > 0 ? transactions / virtualSeconds : 0;
+    }
+
+    public double getMeanLatency() {
+        double sum = 0;
+        for (double latency : sortedLatencies) {
+            sum += latency;
+        }
+        return sortedLatencies.length == 0 ? 0 : sum / sortedLatencies.length;
+    }
+
+    public double getLatencyPercentile(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+
+    public long getMessages() {
+        return messages;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-4s validators=%3d pipeline=%2d blocks=%5d  %9.1f blocks/s  %11.0f tx/s  latency mean %7.2f ms p99 %7.2f ms  messages=%9d  wall %7.1f ms",
+                protocol, validators, pipelineDepth, blocks, getBlocksPerSecond(), getTransactionsPerSecond(),
+                getMeanLatency() * 1000, getLatencyPercentile(99) * 1000, messages, wallNanos / 1e6);
+    }
+}
@@ -0,0 +1,60 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Sizes the consensus overhead of decentralized placement: blocks of placement
+ * transactions from a PlacementLedger are agreed on by growing numbers of validators,
+ * and throughput and commit latency are reported per protocol and pipeline depth.
+ */
+public class ConsensusSimulation {
+
+    private static final int[] VALIDATOR_COUNTS = {4, 7, 16, 31, 64, 100};
+    private static final int[] PIPELINE_DEPTHS = {1, 8};
+
+    private static final int BLOCKS = 200;
+    private static final int TRANSACTIONS_PER_BLOCK = 1024;
+    private static final long SEGMENT_SIZE = 8L * 1024 * 1024;
+
+    // Network model, in seconds
+    private static final double LATENCY = 0.005;
+    private static final double JITTER = 0.002;
+    private static final double PROCESSING_TIME = 0.00005;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        Log.printLine("Starting ConsensusSimulation...");
+        try {
+            for (ConsensusProtocol protocol : ConsensusProtocol.values()) {
+                for (int depth : PIPELINE_DEPTHS) {
+                    for (int validators : VALIDATOR_COUNTS) {
+                        Log.printLine(runScenario(protocol, validators, depth).toString());
+                    }
+                }
+            }
+            Log.printLine("ConsensusSimulation finished!");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static ConsensusReport runScenario(ConsensusProtocol protocol, int validators, int depth) throws Exception {
+        InProcessNetwork network = new InProcessNetwork(LATENCY, JITTER, PROCESSING_TIME, SEED);
+        ConsensusCluster cluster = new ConsensusCluster(protocol, validators, depth, network);
+
+        Path directory = Files.createTempDirectory("consensus-ledger");
+        try (PlacementLedger ledger = new PlacementLedger(directory, TRANSACTIONS_PER_BLOCK, SEGMENT_SIZE)) {
+            ledger.setBlockListener(cluster);
+            // Synthetic placement decisions: one result and one deduction per VM
+            for (int vm = 0; vm < BLOCKS * TRANSACTIONS_PER_BLOCK / 2; vm++) {
+                int host = vm % 1000;
+                ledger.recordAuctionResult(vm, vm, host, 25.0);
+                ledger.recordTokenDeduction(vm, vm, host, 25.0);
+            }
+        }
+        PlacementLedger.delete(directory);
+        return cluster.run();
+    }
+}
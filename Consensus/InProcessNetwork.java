@@ -0,0 +1,101 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Deterministic in-process message bus between validators with its own virtual clock.
+ *
+ * A message arrives after a fixed latency plus uniform jitter. Each validator handles
+ * one message at a time and spends processingTime on it, so a validator flooded with
+ * messages becomes the bottleneck the way a real node would. Messages are delivered in
+ * (time, send order), so a given seed always replays the same run.
+ */
+public class InProcessNetwork {
+
+    private final PriorityQueue<ConsensusMessage> queue = new PriorityQueue<>((a, b) -> {
+        int cmp = Double.compare(a.getDeliveryTime(), b.getDeliveryTime());
+        return cmp != 0 ? cmp : Long.compare(a.getSequence(), b.getSequence());
+    });
+
+    private final double latency;
+    private final double jitter;
+    private final double processingTime;
+    private final Random random;
+
+    private Validator[] validators;
+    private double[] busyUntil;
+    private double now;   // finish time of the delivery being handled; replies leave at it
+    private double clock; // latest finish time so far, for reporting
+    private long sequence;
+    private long messagesDelivered;
+
+    /**
+     * @param latency one-way network latency in seconds
+     * @param jitter maximum extra latency in seconds, drawn uniformly
+     * @param processingTime time in seconds a validator spends handling one message
+     */
+    public InProcessNetwork(double latency, double jitter, double processingTime, long seed) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.processingTime = processingTime;
+        this.random = new Random(seed);
+    }
+
+    void attach(Validator[] validators) {
+        this.validators = validators;
+        this.busyUntil = new double[validators.length];
+    }
+
+    public void send(MessageType type, int from, int to, long height, byte[] digest) {
+        double delay = from == to ? 0 : latency + jitter * random.nextDouble();
+        queue.add(new ConsensusMessage(type, from, to, height, digest, now + delay, sequence++));
+    }
+
+    /** Sends to every validator including the sender, which handles its own copy locally. */
+    public void broadcast(MessageType type, int from, long height, byte[] digest) {
+        for (int to = 0; to < validators.length; to++) {
+            send(type, from, to, height, digest);
+        }
+    }
+
+    /**
+     * Delivers messages until none are left.
+     */
+    public void runUntilIdle() {
+        while (!queue.isEmpty()) {
+            ConsensusMessage message = queue.poll();
+            int to = message.getTo();
+            double start = Math.max(message.getDeliveryTime(), busyUntil[to]);
+            busyUntil[to] = start + processingTime;
+            // Messages are taken in arrival order but finish in busy order, so the
+            // handler's own time can be earlier than the latest finish seen so far
+            now = busyUntil[to];
+            clock = Math.max(clock, now);
+            validators[to].handle(message);
+            messagesDelivered++;
+        }
+        now = clock;
+    }
+
+    /**
+     * Virtual time in seconds at the validator handling the current message, or the
+     * latest finish time when the network is idle.
+     */
+    public double getNow() {
+        return now;
+    }
+
+    /** Latest virtual time any validator has reached, in seconds; never goes back. */
+    public double getClock() {
+        return clock;
+    }
+
+    public long getMessagesDelivered() {
+        return messagesDelivered;
+    }
+
+    public int size() {
+        return validators.length;
+    }
+}
@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Message kinds exchanged by simulated validators.
+ */
+public enum MessageType {
+
+    // PBFT normal case
+    PRE_PREPARE,
+    PREPARE,
+    COMMIT,
+
+    // Raft log replication
+    APPEND_ENTRIES,
+    APPEND_ACK
+}
@@ -0,0 +1,81 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PBFT normal-case replica: pre-prepare from the leader, then prepare and commit rounds
+ * that each need 2f+1 matching votes. View changes are not modelled; the leader is fixed.
+ */
+public class PbftValidator implements Validator {
+
+    private final int id;
+    private final int quorum;
+    // One pre-prepare plus a prepare and a commit from every validator.
+    private final int messagesPerInstance;
+    private final InProcessNetwork network;
+    private final ConsensusCluster cluster;
+    private final Map<Long, Instance> instances = new HashMap<>();
+
+    private static class Instance {
+        byte[] digest;
+        boolean prepared;
+        boolean committed;
+        int prepares;
+        int commits;
+        int received;
+    }
+
+    PbftValidator(int id, int validatorCount, InProcessNetwork network, ConsensusCluster cluster) {
+        this.id = id;
+        this.quorum = 2 * ((validatorCount - 1) / 3) + 1;
+        this.messagesPerInstance = 2 * validatorCount + 1;
+        this.network = network;
+        this.cluster = cluster;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void propose(long height, byte[] digest) {
+        network.broadcast(MessageType.PRE_PREPARE, id, height, digest);
+    }
+
+    @Override
+    public void handle(ConsensusMessage message) {
+        long height = message.getHeight();
+        Instance instance = instances.computeIfAbsent(height, h -> new Instance());
+        switch (message.getType()) {
+            case PRE_PREPARE:
+                if (instance.digest == null) {
+                    instance.digest = message.getDigest();
+                    network.broadcast(MessageType.PREPARE, id, height, instance.digest);
+                }
+                break;
+            case PREPARE:
+                instance.prepares++;
+                break;
+            case COMMIT:
+                instance.commits++;
+                break;
+            default:
+                throw new IllegalArgumentException("PBFT replica cannot handle " + message.getType());
+        }
+
+        // Votes can overtake the pre-prepare, so re-check both phases on every message.
+        if (!instance.prepared && instance.digest != null && instance.prepares >= quorum) {
+            instance.prepared = true;
+            network.broadcast(MessageType.COMMIT, id, height, instance.digest);
+        }
+        if (!instance.committed && instance.prepared && instance.commits >= quorum) {
+            instance.committed = true;
+            cluster.onLocalCommit(id, height);
+        }
+        if (++instance.received == messagesPerInstance) {
+            instances.remove(height);
+        }
+    }
+}
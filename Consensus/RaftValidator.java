@@ -0,0 +1,62 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Raft log replication with a stable leader: the leader appends a block to all followers
+ * and commits it once a majority, itself included, has acknowledged it.
+ * Elections and log repair are not modelled.
+ */
+public class RaftValidator implements Validator {
+
+    private final int id;
+    private final int majority;
+    private final InProcessNetwork network;
+    private final ConsensusCluster cluster;
+    private final Map<Long, int[]> acks = new HashMap<>();
+
+    RaftValidator(int id, int validatorCount, InProcessNetwork network, ConsensusCluster cluster) {
+        this.id = id;
+        this.majority = validatorCount / 2 + 1;
+        this.network = network;
+        this.cluster = cluster;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void propose(long height, byte[] digest) {
+        acks.put(height, new int[] {1});
+        for (int to = 0; to < network.size(); to++) {
+            if (to != id) {
+                network.send(MessageType.APPEND_ENTRIES, id, to, height, digest);
+            }
+        }
+        if (majority == 1) {
+            acks.remove(height);
+            cluster.onLocalCommit(id, height);
+        }
+    }
+
+    @Override
+    public void handle(ConsensusMessage message) {
+        switch (message.getType()) {
+            case APPEND_ENTRIES:
+                network.send(MessageType.APPEND_ACK, id, message.getFrom(), message.getHeight(), message.getDigest());
+                break;
+            case APPEND_ACK:
+                int[] count = acks.get(message.getHeight());
+                if (count != null && ++count[0] >= majority) {
+                    acks.remove(message.getHeight());
+                    cluster.onLocalCommit(id, message.getHeight());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Raft node cannot handle " + message.getType());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * One simulated validator node taking part in consensus on placement blocks.
+ */
+public interface Validator {
+
+    int getId();
+
+    /**
+     * Called on the leader to start agreement on a new block.
+     */
+    void propose(long height, byte[] digest);
+
+    void handle(ConsensusMessage message);
+}
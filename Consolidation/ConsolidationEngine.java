@@ -0,0 +1,397 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * Revisits VM placement during the simulation and moves VMs off over- and under-utilized
+ * hosts with live migrations.
+ *
+ * The engine listens to its TrackedHosts and only looks at hosts whose load changed since
+ * its last pass. A pass runs one interval after the first change and only while some
+ * host runs VMs. A host above the upper CPU threshold sheds the fewest VMs that bring it
+ * back under; targets already running VMs are preferred to waking an empty host. A host
+ * below the lower threshold is emptied, so it can be switched off, if every VM it runs
+ * can go to another non-empty host. Targets are chosen with the least-utilization
+ * heuristic or a reverse auction among BiddingHosts, and must stay at or under the upper
+ * threshold. Hosts emptied in a pass are not targets, and hosts receiving VMs are not
+ * emptied.
+ *
+ * A migration reserves the VM on its target (addMigratingInVm) and is sent to the
+ * datacenter as VM_MIGRATE, delayed by its migration time. Until it completes, neither
+ * host is considered again. Migration time and energy come from a MigrationCostModel.
+ */
+public class ConsolidationEngine extends SimEntity implements HostLoadListener {
+
+    /** How the target host of a migration is chosen. */
+    public enum TargetRule {
+        LEAST_UTILIZED, REVERSE_AUCTION
+    }
+
+    public static final double DEFAULT_INTERVAL = 300;
+    public static final double DEFAULT_LOWER_THRESHOLD = 0.2;
+    public static final double DEFAULT_UPPER_THRESHOLD = 0.8;
+
+    private final int datacenterId;
+    private final List<? extends Host> hosts;
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+    private final HostUtilizationIndex index;
+    private final BitSet dirty;
+    private final boolean[] loaded;
+    private final double[] busyUntil;
+    private int loadedHosts;
+
+    private double interval = DEFAULT_INTERVAL;
+    private double lowerThreshold = DEFAULT_LOWER_THRESHOLD;
+    private double upperThreshold = DEFAULT_UPPER_THRESHOLD;
+    private TargetRule targetRule = TargetRule.LEAST_UTILIZED;
+    private AuctionEngine auctionEngine = new SerialAuctionEngine();
+    private MigrationCostModel costModel = new MigrationCostModel();
+    private EnergyMeter energyMeter;
+
+    private boolean started;
+    private boolean passScheduled;
+
+    // Scratch for one pass.
+    private final BitSet emptied;
+    private final BitSet receiving;
+    private final List<Host> candidates = new ArrayList<>();
+
+    private long passes;
+    private long hostsEvaluated;
+    private long migrations;
+    private long hostsEmptied;
+    private long abandonedEvacuations;
+    private double migrationSeconds;
+    private double migrationJoules;
+
+    public ConsolidationEngine(String name, int datacenterId, List<? extends Host> hosts) {
+        super(name);
+        this.datacenterId = datacenterId;
+        this.hosts = hosts;
+        int n = hosts.size();
+        this.index = new HostUtilizationIndex(hosts);
+        this.dirty = new BitSet(n);
+        this.loaded = new boolean[n];
+        this.busyUntil = new double[n];
+        this.emptied = new BitSet(n);
+        this.receiving = new BitSet(n);
+        for (int h = 0; h < n; h++) {
+            Host host = hosts.get(h);
+            if (!(host instanceof TrackedHost)) {
+                throw new IllegalArgumentException("Consolidation needs TrackedHosts to see load changes, got " + host.getClass().getSimpleName());
+            }
+            slots.put(host, h);
+            ((TrackedHost) host).addLoadListener(this);
+            loaded[h] = ((TrackedHost) host).getUsedMips() > 0;
+            loadedHosts += loaded[h] ? 1 : 0;
+        }
+        dirty.set(0, n);
+    }
+
+    /** Simulated seconds between a load change and the pass that looks at it. */
+    public void setInterval(double interval) {
+        this.interval = interval;
+    }
+
+    /** CPU utilization below which a host is emptied and above which it sheds VMs. */
+    public void setThresholds(double lower, double upper) {
+        this.lowerThreshold = lower;
+        this.upperThreshold = upper;
+    }
+
+    public void setTargetRule(TargetRule targetRule) {
+        if (targetRule == TargetRule.REVERSE_AUCTION) {
+            for (Host host : hosts) {
+                if (!(host instanceof BiddingHost)) {
+                    throw new IllegalArgumentException("A reverse auction needs BiddingHosts");
+                }
+            }
+        }
+        this.targetRule = targetRule;
+    }
+
+    /** Engine that runs the reverse auctions. */
+    public void setAuctionEngine(AuctionEngine auctionEngine) {
+        this.auctionEngine = auctionEngine;
+    }
+
+    public void setCostModel(MigrationCostModel costModel) {
+        this.costModel = costModel;
+    }
+
+    /**
+     * Books the energy of every migration on its source host in the meter, so the meter's
+     * total covers migrations too.
+     */
+    public void setEnergyMeter(EnergyMeter energyMeter) {
+        this.energyMeter = energyMeter;
+    }
+
+    @Override
+    public void startEntity() {
+        started = true;
+        if (loadedHosts > 0) {
+            schedulePass();
+        }
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        if (ev.getTag() == ConsolidationTags.CONSOLIDATE) {
+            passScheduled = false;
+            consolidate();
+            if (!dirty.isEmpty() && loadedHosts > 0) {
+                schedulePass();
+            }
+        }
+    }
+
+    @Override
+    public void shutdownEntity() {
+    }
+
+    @Override
+    public void onLoadChanged(TrackedHost host) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            return;
+        }
+        dirty.set(slot);
+        boolean nowLoaded = host.getUsedMips() > 0;
+        if (nowLoaded != loaded[slot]) {
+            loaded[slot] = nowLoaded;
+            loadedHosts += nowLoaded ? 1 : -1;
+        }
+        if (!started) {
+            return;
+        }
+        if (loadedHosts == 0 && passScheduled) {
+            // Nothing left to consolidate; do not keep the simulation running for it
+            CloudSim.cancelAll(getId(), new PredicateType(ConsolidationTags.CONSOLIDATE));
+            passScheduled = false;
+        } else if (loadedHosts > 0) {
+            schedulePass();
+        }
+    }
+
+    private void schedulePass() {
+        if (!passScheduled) {
+            passScheduled = true;
+            schedule(getId(), interval, ConsolidationTags.CONSOLIDATE);
+        }
+    }
+
+    /**
+     * One pass over the hosts that changed since the last one.
+     */
+    private void consolidate() {
+        double now = CloudSim.clock();
+        passes++;
+        emptied.clear();
+        receiving.clear();
+
+        List<Host> over = new ArrayList<>();
+        List<Host> under = new ArrayList<>();
+        for (int h = dirty.nextSetBit(0); h >= 0; h = dirty.nextSetBit(h + 1)) {
+            Host host = hosts.get(h);
+            index.update(host);
+            hostsEvaluated++;
+            if (busyUntil[h] > now) {
+                continue; // looked at again when its migration completes
+            }
+            double utilization = TrackedHost.cpuUtilization(host);
+            if (utilization > upperThreshold) {
+                over.add(host);
+            } else if (utilization > 0 && utilization < lowerThreshold) {
+                under.add(host);
+            }
+        }
+        dirty.clear();
+
+        over.sort((a, b) -> Double.compare(TrackedHost.cpuUtilization(b), TrackedHost.cpuUtilization(a)));
+        for (Host host : over) {
+            relieve(host, now);
+        }
+        under.sort((a, b) -> Double.compare(TrackedHost.cpuUtilization(a), TrackedHost.cpuUtilization(b)));
+        for (Host host : under) {
+            if (!receiving.get(slots.get(host))) {
+                evacuate(host, now);
+            }
+        }
+    }
+
+    // Migrates the fewest VMs that bring the host back under the upper threshold
+    private void relieve(Host source, double now) {
+        List<Vm> vms = movableVms(source);
+        if (vms == null) {
+            return;
+        }
+        vms.sort((a, b) -> Double.compare(demand(a), demand(b)));
+        double total = source.getTotalMips();
+        double used = ((TrackedHost) source).getUsedMips();
+        while (used / total > upperThreshold && !vms.isEmpty()) {
+            // The smallest VM that is enough on its own, else the largest
+            Vm vm = vms.get(vms.size() - 1);
+            for (Vm candidate : vms) {
+                if ((used - demand(candidate)) / total <= upperThreshold) {
+                    vm = candidate;
+                    break;
+                }
+            }
+            vms.remove(vm);
+            Host target = selectTarget(vm, source, true);
+            if (target == null) {
+                target = selectTarget(vm, source, false);
+            }
+            if (target != null) {
+                reserve(vm, target);
+                migrate(vm, source, target, now);
+                used -= demand(vm);
+            }
+        }
+    }
+
+    // Moves every VM off the host, or none of them
+    private void evacuate(Host source, double now) {
+        List<Vm> vms = movableVms(source);
+        if (vms == null || vms.isEmpty()) {
+            return;
+        }
+        vms.sort((a, b) -> Double.compare(demand(b), demand(a)));
+        emptied.set(slots.get(source));
+        Host[] targets = new Host[vms.size()];
+        for (int i = 0; i < vms.size(); i++) {
+            targets[i] = selectTarget(vms.get(i), source, true);
+            if (targets[i] == null) {
+                for (int k = 0; k < i; k++) {
+                    targets[k].removeMigratingInVm(vms.get(k));
+                    index.update(targets[k]);
+                }
+                emptied.clear(slots.get(source));
+                abandonedEvacuations++;
+                return;
+            }
+            reserve(vms.get(i), targets[i]);
+        }
+        for (int i = 0; i < vms.size(); i++) {
+            migrate(vms.get(i), source, targets[i], now);
+        }
+        hostsEmptied++;
+    }
+
+    /** The host's VMs, or null if one of them is already migrating. */
+    private List<Vm> movableVms(Host source) {
+        List<Vm> vms = new ArrayList<>(source.<Vm>getGuestList());
+        for (Vm vm : vms) {
+            if (vm.isInMigration()) {
+                return null;
+            }
+        }
+        return vms;
+    }
+
+    /**
+     * @param loadedOnly whether only hosts already running VMs may take it
+     */
+    private Host selectTarget(Vm vm, Host source, boolean loadedOnly) {
+        Predicate<Host> allowed = host -> {
+            int slot = slots.get(host);
+            return host != source && !emptied.get(slot) && (!loadedOnly || loaded[slot])
+                    && (((TrackedHost) host).getUsedMips() + demand(vm)) / host.getTotalMips() <= upperThreshold;
+        };
+        if (targetRule == TargetRule.LEAST_UTILIZED) {
+            return index.findLeastUtilized(vm, allowed);
+        }
+        candidates.clear();
+        for (Host host : hosts) {
+            if (allowed.test(host)) {
+                candidates.add(host);
+            }
+        }
+        return auctionEngine.runAuction(vm, candidates, TieBreak.FIRST_IN_LIST).getWinner();
+    }
+
+    private void reserve(Vm vm, Host target) {
+        target.addMigratingInVm(vm);
+        index.update(target);
+        receiving.set(slots.get(target));
+    }
+
+    private void migrate(Vm vm, Host source, Host target, double now) {
+        double delay = costModel.migrationTime(vm, source, target);
+        Map<String, Object> migration = new HashMap<>();
+        migration.put("vm", vm);
+        migration.put("host", target);
+        send(datacenterId, delay, CloudActionTags.VM_MIGRATE, migration);
+
+        busyUntil[slots.get(source)] = Math.max(busyUntil[slots.get(source)], now + delay);
+        busyUntil[slots.get(target)] = Math.max(busyUntil[slots.get(target)], now + delay);
+        migrations++;
+        migrationSeconds += delay;
+        double joules = costModel.migrationEnergy(vm);
+        migrationJoules += joules;
+        if (energyMeter != null) {
+            energyMeter.addEnergy(source, joules);
+        }
+        AuctionLog.recordMigration(now, vm.getId(), target.getId(), delay);
+        AuctionLog.info(() -> String.format("%.2f: %s: Migrating VM #%d from Host #%d to Host #%d, %.2f s",
+                now, getName(), vm.getId(), source.getId(), target.getId(), delay));
+    }
+
+    private static double demand(Vm vm) {
+        return vm.getMips() * vm.getNumberOfPes();
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    /** Hosts looked at over all passes; the fleet size times the passes for a full rescan. */
+    public long getHostsEvaluated() {
+        return hostsEvaluated;
+    }
+
+    public long getMigrations() {
+        return migrations;
+    }
+
+    /** Hosts emptied by moving all their VMs away. */
+    public long getHostsEmptied() {
+        return hostsEmptied;
+    }
+
+    /** Under-utilized hosts left as they were because some VM had nowhere to go. */
+    public long getAbandonedEvacuations() {
+        return abandonedEvacuations;
+    }
+
+    /** Sum of all migration times. */
+    public double getMigrationSeconds() {
+        return migrationSeconds;
+    }
+
+    /** Energy spent on migrations; part of the EnergyMeter's total when one is set. */
+    public double getMigrationEnergyKWh() {
+        return migrationJoules / 3600000;
+    }
+
+    public void printReport() {
+        Log.printLine(String.format("Consolidation: %d passes looked at %d hosts; %d migrations took %.1f s and %.4f kWh",
+                passes, hostsEvaluated, migrations, migrationSeconds, getMigrationEnergyKWh()));
+        Log.printLine(String.format("Consolidation: %d hosts emptied, %d evacuations abandoned", hostsEmptied, abandonedEvacuations));
+    }
+}
@@ -0,0 +1,11 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
+/**
+ * Events a ConsolidationEngine sends to itself.
+ */
+public enum ConsolidationTags implements CloudSimTags {
+    /** Time for the next consolidation pass. */
+    CONSOLIDATE
+}
@@ -0,0 +1,46 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Time and energy a live migration costs.
+ *
+ * The VM's memory is copied over the slower of the two hosts' links, of which only a
+ * share is given to migration traffic. Energy is linear in the data moved, as measured
+ * for pre-copy live migration by Liu et al. (HPDC 2011): 0.512 J per MB plus 20.165 J.
+ */
+public class MigrationCostModel {
+
+    public static final double DEFAULT_BANDWIDTH_SHARE = 0.5;
+    public static final double DEFAULT_JOULES_PER_MB = 0.512;
+    public static final double DEFAULT_FIXED_JOULES = 20.165;
+
+    private final double bandwidthShare;
+    private final double joulesPerMb;
+    private final double fixedJoules;
+
+    public MigrationCostModel() {
+        this(DEFAULT_BANDWIDTH_SHARE, DEFAULT_JOULES_PER_MB, DEFAULT_FIXED_JOULES);
+    }
+
+    /**
+     * @param bandwidthShare fraction of a host's bandwidth migration traffic may use
+     */
+    public MigrationCostModel(double bandwidthShare, double joulesPerMb, double fixedJoules) {
+        this.bandwidthShare = bandwidthShare;
+        this.joulesPerMb = joulesPerMb;
+        this.fixedJoules = fixedJoules;
+    }
+
+    /** Seconds to copy the VM's memory (MB) over the link (Mbit/s). */
+    public double migrationTime(Vm vm, Host source, Host target) {
+        double mbps = Math.min(source.getBw(), target.getBw()) * bandwidthShare;
+        return mbps <= 0 ? 0 : vm.getRam() * 8.0 / mbps;
+    }
+
+    /** Joules spent moving the VM, on top of the hosts' power draw. */
+    public double migrationEnergy(Vm vm) {
+        return joulesPerMb * vm.getRam() + fixedJoules;
+    }
+}
@@ -0,0 +1,237 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Arrays;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Clears a whole batch of VMs against all TokenBiddingHosts in one round.
+ *
+ * Host state is loaded into a MultiResourceAuction once and every VM is priced against
+ * that tentative state. A host's bid for a VM is its bundle price, the sum of its
+ * per-resource prices (CPU, RAM, BW, storage) at its tentative utilization. VMs are
+ * assigned greedily, largest first, to the lowest bundle price. Ties go to the higher
+ * token balance and then to host order. VMs left over get a repair pass that moves one
+ * already-assigned VM to free enough room.
+ *
+ * The greedy pass is O(VMs x hosts). The repair pass may look at REPAIR_MOVES_PER_VM
+ * assigned VMs per VM of the batch and each look may search every host for a new place,
+ * so it is O(VMs x hosts) too however contended the batch is. VMs it had no budget left
+ * for stay unplaced and are counted in Result.getUnrepaired(). The result does not
+ * depend on the order of the VM list. Nothing is applied to the hosts; the caller
+ * commits the returned assignment.
+ */
+public class BatchAuctionClearing {
+
+    public static final double DEFAULT_PRICE_PER_VM = 25.0;
+
+    /** Assigned VMs the repair pass may try to move, per VM of the batch. */
+    public static final int REPAIR_MOVES_PER_VM = 4;
+
+    private final double pricePerVm;
+
+    // Tentative host state and prices for the batch being cleared.
+    private MultiResourceAuction round;
+
+    // Per-host lists of tentatively assigned VMs, linked through nextOnHost.
+    private int[] firstOnHost;
+    private int[] nextOnHost;
+
+    public BatchAuctionClearing() {
+        this(DEFAULT_PRICE_PER_VM);
+    }
+
+    /**
+     * @param pricePerVm tokens deducted from the winning host for each VM, as in the per-VM auction
+     */
+    public BatchAuctionClearing(double pricePerVm) {
+        this.pricePerVm = pricePerVm;
+    }
+
+    public Result clear(List<? extends Vm> vms, List<? extends Host> hosts) {
+        long start = System.nanoTime();
+        int hostCount = hosts.size();
+        int vmCount = vms.size();
+        round = new MultiResourceAuction(hosts);
+
+        int[] assignment = new int[vmCount];
+        double[] bundlePrice = new double[vmCount];
+        Arrays.fill(assignment, -1);
+        firstOnHost = new int[hostCount];
+        nextOnHost = new int[vmCount];
+        Arrays.fill(firstOnHost, -1);
+
+        Integer[] order = placementOrder(vms, hosts);
+        for (int v : order) {
+            Vm vm = vms.get(v);
+            int best = cheapestHost(vm, -1);
+            if (best >= 0) {
+                bundlePrice[v] = round.getBundleBid(best);
+                assign(vm, v, best, assignment);
+            }
+        }
+
+        int unrepaired = repair(vms, hosts, order, assignment, bundlePrice);
+
+        Host[] winners = new Host[vmCount];
+        int placed = 0;
+        for (int v = 0; v < vmCount; v++) {
+            if (assignment[v] >= 0) {
+                winners[v] = hosts.get(assignment[v]);
+                placed++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        double tokensPaid = placed * pricePerVm;
+        PlacementQuality quality = PlacementQuality.of("Batch clearing", vms, hosts, winners, tokensPaid, elapsed);
+        return new Result(winners, bundlePrice, quality, unrepaired);
+    }
+
+    public double getPricePerVm() {
+        return pricePerVm;
+    }
+
+    /**
+     * Largest VMs first (CPU and RAM demand relative to the fleet), then by VM id, so the
+     * result is the same for any order of the VM list.
+     */
+    private Integer[] placementOrder(List<? extends Vm> vms, List<? extends Host> hosts) {
+        double fleetMips = 0;
+        double fleetRam = 0;
+        for (Host host : hosts) {
+            fleetMips += host.getTotalMips();
+            fleetRam += host.getRam();
+        }
+        double[] demand = new double[vms.size()];
+        Integer[] order = new Integer[vms.size()];
+        for (int v = 0; v < vms.size(); v++) {
+            Vm vm = vms.get(v);
+            demand[v] = vm.getMips() * vm.getNumberOfPes() / Math.max(1, fleetMips) + vm.getRam() / Math.max(1, fleetRam);
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Double.compare(demand[b], demand[a]);
+            return cmp != 0 ? cmp : Integer.compare(vms.get(a).getId(), vms.get(b).getId());
+        });
+        return order;
+    }
+
+    /** The cheapest host that fits the VM and can still pay for it, or -1. */
+    private int cheapestHost(Vm vm, int excluded) {
+        return round.findWinner(vm, excluded, pricePerVm);
+    }
+
+    private void assign(Vm vm, int v, int h, int[] assignment) {
+        assignment[v] = h;
+        nextOnHost[v] = firstOnHost[h];
+        firstOnHost[h] = v;
+        round.commit(h, vm, pricePerVm);
+    }
+
+    private void unassign(Vm vm, int v, int[] assignment) {
+        int h = assignment[v];
+        if (firstOnHost[h] == v) {
+            firstOnHost[h] = nextOnHost[v];
+        } else {
+            int prev = firstOnHost[h];
+            while (nextOnHost[prev] != v) {
+                prev = nextOnHost[prev];
+            }
+            nextOnHost[prev] = nextOnHost[v];
+        }
+        assignment[v] = -1;
+        round.release(h, vm, pricePerVm);
+    }
+
+    /**
+     * For every VM the greedy pass could not place, tries to move one assigned VM off a
+     * host onto another host so the unplaced VM fits where it was. The first working
+     * move is taken.
+     *
+     * @return the unplaced VMs whose search the move budget cut short or never started
+     */
+    private int repair(List<? extends Vm> vms, List<? extends Host> hosts, Integer[] order, int[] assignment, double[] bundlePrice) {
+        int[] residents = new int[vms.size()];
+        long budget = (long) REPAIR_MOVES_PER_VM * vms.size();
+        int unrepaired = 0;
+        for (int v : order) {
+            if (assignment[v] >= 0) {
+                continue;
+            }
+            if (budget <= 0) {
+                unrepaired++;
+                continue;
+            }
+            Vm vm = vms.get(v);
+            boolean repaired = false;
+            for (int h = 0; h < hosts.size() && !repaired; h++) {
+                // Copy the host's VMs first; moving them relinks the list.
+                int count = 0;
+                for (int u = firstOnHost[h]; u >= 0; u = nextOnHost[u]) {
+                    residents[count++] = u;
+                }
+                for (int i = 0; i < count && !repaired && budget > 0; i++) {
+                    budget--;
+                    int u = residents[i];
+                    Vm moved = vms.get(u);
+                    unassign(moved, u, assignment);
+                    if (round.fits(vm, h) && round.bundleBid(h) != Double.MAX_VALUE && round.getBalance(h) >= pricePerVm) {
+                        int target = cheapestHost(moved, h);
+                        if (target >= 0) {
+                            bundlePrice[u] = round.getBundleBid(target);
+                            assign(moved, u, target, assignment);
+                            bundlePrice[v] = round.bundleBid(h);
+                            assign(vm, v, h, assignment);
+                            repaired = true;
+                            break;
+                        }
+                    }
+                    assign(moved, u, h, assignment);
+                }
+                if (budget <= 0 && !repaired) {
+                    unrepaired++;
+                    break;
+                }
+            }
+        }
+        return unrepaired;
+    }
+
+    /**
+     * Outcome of a batch clearing round.
+     */
+    public static class Result {
+
+        private final Host[] assignment;
+        private final double[] bundlePrices;
+        private final PlacementQuality quality;
+        private final int unrepaired;
+
+        Result(Host[] assignment, double[] bundlePrices, PlacementQuality quality, int unrepaired) {
+            this.assignment = assignment;
+            this.bundlePrices = bundlePrices;
+            this.quality = quality;
+            this.unrepaired = unrepaired;
+        }
+
+        /** assignment[i] is the host that won the i-th VM of the batch, or null. */
+        public Host[] getAssignment() {
+            return assignment;
+        }
+
+        /** The winning bundle bid per VM; only meaningful where a host was assigned. */
+        public double[] getBundlePrices() {
+            return bundlePrices;
+        }
+
+        public PlacementQuality getQuality() {
+            return quality;
+        }
+
+        /** Unplaced VMs the repair pass ran out of budget for before it could rule them out. */
+        public int getUnrepaired() {
+            return unrepaired;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Multi-resource sealed-bid auction over a fixed list of TokenBiddingHosts.
+ *
+ * A VM's demand is read per ResourceType. Every host quotes a price per
+ * resource from its utilization of that resource, and its bid for the VM is the sum of
+ * those prices. Host state is copied into flat primitive arrays laid out per resource
+ * (index r * hosts + h): capacity, free amount and price. Prices are computed once when
+ * the round is refreshed and again only for a host that wins, so scoring a VM is one
+ * pass over each resource's array with no calls into the hosts.
+ *
+ * The lowest bundle bid wins; ties go to the higher token balance and then host order.
+ * The runner-up bid, the lowest bundle bid of the other eligible hosts, is found in the
+ * same pass, so second-price and VCG charges cost nothing extra.
+ * Wins can be committed to the round's tentative state, so later VMs of the same round
+ * see the load and token balance the earlier ones left behind.
+ *
+ * An auction that tracks its hosts can be kept across rounds. Hosts then report every
+ * allocation and balance change, startRound() re-reads only the hosts that changed or
+ * won, and the hosts are kept in an indexed heap ordered by bundle bid (then higher
+ * balance, then host order). findWinner walks that heap best-first and stops at the
+ * second host that fits, so it only looks at the hosts that bid lower than the winner
+ * and the runner-up, and a win reprices one host in O(log n). An auction that is dropped
+ * must be untracked, or the hosts keep it alive and keep notifying it.
+ */
+public class MultiResourceAuction implements HostLoadListener, TokenBalanceListener {
+
+    private static final int R = ResourceType.COUNT;
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+
+    private final List<? extends Host> hosts;
+    private final int n;
+
+    private final double[] capacity;
+    private final double[] free;
+    private final double[] price;
+    private final double[] peMips;
+    private final int[] peCount;
+    private final double[] balance;
+
+    // Scratch for the VM being scored.
+    private final double[] demand = new double[R];
+    private final double[] score;
+    private double runnerUp;
+    private int vmPes;
+    private double vmMips;
+    private int hostsVisited;
+
+    // Best-bid order, kept once the hosts are tracked; null before that.
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+    private final BitSet dirty = new BitSet();   // changed on the host since it was read
+    private final BitSet touched = new BitSet(); // committed or released this round
+    private double[] bundle;  // host -> bundle bid, +inf if it abstains
+    private int[] heap;       // heap position -> host
+    private int[] position;   // host -> heap position
+    private int[] frontier;
+
+    public MultiResourceAuction(List<? extends Host> hosts) {
+        this.hosts = hosts;
+        this.n = hosts.size();
+        this.capacity = new double[R * n];
+        this.free = new double[R * n];
+        this.price = new double[R * n];
+        this.peMips = new double[n];
+        this.peCount = new int[n];
+        this.balance = new double[n];
+        this.score = new double[n];
+        refresh();
+    }
+
+    /**
+     * Starts a new round from the hosts' current state.
+     */
+    public void refresh() {
+        for (int h = 0; h < n; h++) {
+            read(h);
+        }
+        dirty.clear();
+        touched.clear();
+        if (heap != null) {
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+    }
+
+    /**
+     * Registers for the hosts' allocation and balance changes and keeps the hosts ordered
+     * by bundle bid from now on. Call it once for an auction that is kept across rounds.
+     */
+    public void trackHosts() {
+        if (heap != null) {
+            return;
+        }
+        bundle = new double[n];
+        heap = new int[n];
+        position = new int[n];
+        frontier = new int[Math.max(1, n)];
+        for (int h = 0; h < n; h++) {
+            TokenBiddingHost host = (TokenBiddingHost) hosts.get(h);
+            slots.put(host, h);
+            host.addLoadListener(this);
+            host.addBalanceListener(this);
+            heap[h] = h;
+            position[h] = h;
+        }
+        refresh();
+    }
+
+    /**
+     * Stops following the hosts' changes; the auction goes back to scanning every host.
+     */
+    public void untrackHosts() {
+        if (heap == null) {
+            return;
+        }
+        for (int h = 0; h < n; h++) {
+            TokenBiddingHost host = (TokenBiddingHost) hosts.get(h);
+            host.removeLoadListener(this);
+            host.removeBalanceListener(this);
+        }
+        slots.clear();
+        dirty.clear();
+        touched.clear();
+        bundle = null;
+        heap = null;
+        position = null;
+        frontier = null;
+    }
+
+    /**
+     * Starts a new round of a tracked auction: re-reads the hosts that changed since the
+     * last round and the hosts the last round committed to, and nothing else.
+     */
+    public void startRound() {
+        if (heap == null) {
+            refresh();
+            return;
+        }
+        dirty.or(touched);
+        for (int h = dirty.nextSetBit(0); h >= 0; h = dirty.nextSetBit(h + 1)) {
+            read(h);
+            reorder(h);
+        }
+        dirty.clear();
+        touched.clear();
+    }
+
+    @Override
+    public void onLoadChanged(TrackedHost host) {
+        markDirty(host);
+    }
+
+    @Override
+    public void onBalanceChanged(TokenBiddingHost host, double newBalance) {
+        markDirty(host);
+    }
+
+    private void markDirty(Host host) {
+        Integer slot = slots.get(host);
+        if (slot != null) {
+            dirty.set(slot);
+        }
+    }
+
+    public List<? extends Host> getHosts() {
+        return hosts;
+    }
+
+    private void read(int h) {
+        TokenBiddingHost host = (TokenBiddingHost) hosts.get(h);
+        for (int r = 0; r < R; r++) {
+            capacity[r * n + h] = RESOURCES[r].capacity(host);
+            free[r * n + h] = RESOURCES[r].available(host);
+        }
+        peMips[h] = host.getVmScheduler().getPeCapacity();
+        peCount[h] = host.getNumberOfPes();
+        balance[h] = host.getTokenBalance();
+        reprice(h);
+    }
+
+    /**
+     * Scores every host for the VM and returns the index of the winner, or -1. The
+     * bundle bids and the runner-up bid stay available through getBundleBid and
+     * getRunnerUpBid until the next call.
+     *
+     * @param excluded a host index that may not win, or -1
+     * @param minBalance token balance a host needs to be allowed to win
+     */
+    public int findWinner(Vm vm, int excluded, double minBalance) {
+        for (int r = 0; r < R; r++) {
+            demand[r] = RESOURCES[r].demand(vm);
+        }
+        vmPes = vm.getNumberOfPes();
+        vmMips = vm.getMips();
+        if (heap != null) {
+            return findWinnerInOrder(excluded, minBalance);
+        }
+        hostsVisited = n;
+        for (int h = 0; h < n; h++) {
+            score[h] = vm.getNumberOfPes() <= peCount[h] && vm.getMips() <= peMips[h] ? 0 : Double.NaN;
+        }
+        for (int r = 0; r < R; r++) {
+            int offset = r * n;
+            double d = demand[r];
+            for (int h = 0; h < n; h++) {
+                score[h] = free[offset + h] >= d ? score[h] + price[offset + h] : Double.NaN;
+            }
+        }
+        int best = -1;
+        double second = Double.POSITIVE_INFINITY;
+        for (int h = 0; h < n; h++) {
+            double s = score[h];
+            if (h == excluded || !(s < Double.POSITIVE_INFINITY) || balance[h] < minBalance) {
+                continue;
+            }
+            if (best < 0 || s < score[best] || (s == score[best] && balance[h] > balance[best])) {
+                if (best >= 0) {
+                    second = Math.min(second, score[best]);
+                }
+                best = h;
+            } else {
+                second = Math.min(second, s);
+            }
+        }
+        runnerUp = second;
+        return best;
+    }
+
+    // Walks the heap best-first; a child never bids lower than its parent, so the first two
+    // eligible hosts popped are the winner and the runner-up.
+    private int findWinnerInOrder(int excluded, double minBalance) {
+        int best = -1;
+        double second = Double.POSITIVE_INFINITY;
+        int visited = 0;
+        int size = 0;
+        if (n > 0) {
+            frontier[size++] = 0;
+        }
+        while (size > 0) {
+            int pos = frontier[0];
+            frontier[0] = frontier[--size];
+            frontierDown(size);
+
+            int h = heap[pos];
+            if (bundle[h] == Double.POSITIVE_INFINITY) {
+                break; // everyone left abstains
+            }
+            visited++;
+            if (h != excluded && balance[h] >= minBalance && fitsDemand(h)) {
+                if (best >= 0) {
+                    second = bundle[h];
+                    break;
+                }
+                best = h;
+            }
+            int left = 2 * pos + 1;
+            if (left < n) {
+                frontier[size] = left;
+                frontierUp(size++);
+            }
+            if (left + 1 < n) {
+                frontier[size] = left + 1;
+                frontierUp(size++);
+            }
+        }
+        hostsVisited = visited;
+        runnerUp = second;
+        if (best >= 0) {
+            score[best] = bundle[best];
+        }
+        return best;
+    }
+
+    private boolean fitsDemand(int h) {
+        if (vmPes > peCount[h] || vmMips > peMips[h]) {
+            return false;
+        }
+        for (int r = 0; r < R; r++) {
+            if (!(free[r * n + h] >= demand[r])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Hosts whose bids the last findWinner looked at: all of them, or for a tracked auction those up to the runner-up. */
+    public int getHostsVisited() {
+        return hostsVisited;
+    }
+
+    /**
+     * Runs the auction for one VM and reports it like the single-resource engines:
+     * NaN for hosts that cannot take the VM and Double.MAX_VALUE for hosts that abstain.
+     */
+    public AuctionOutcome run(Vm vm) {
+        int best = findWinner(vm, -1, Double.NEGATIVE_INFINITY);
+        double[] bids = new double[n];
+        for (int h = 0; h < n; h++) {
+            bids[h] = getBundleBid(h);
+        }
+        if (best < 0) {
+            return new AuctionOutcome(vm, null, Double.MAX_VALUE, Double.MAX_VALUE, false, bids);
+        }
+        return new AuctionOutcome(vm, hosts.get(best), score[best], getRunnerUpBid(), runnerUp == score[best], bids);
+    }
+
+    /**
+     * Bundle bid of a host for the VM last scored: NaN if it cannot take it, Double.MAX_VALUE
+     * if it abstains. A tracked auction works it out from the current tentative state.
+     */
+    public double getBundleBid(int h) {
+        double s = heap == null ? score[h] : fitsDemand(h) ? bundle[h] : Double.NaN;
+        return s == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : s;
+    }
+
+    /** Lowest bundle bid of the eligible hosts other than the last winner, Double.MAX_VALUE if none. */
+    public double getRunnerUpBid() {
+        return runnerUp == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : runnerUp;
+    }
+
+    /** The host's current asking price for one resource, Double.MAX_VALUE if it abstains. */
+    public double getPrice(ResourceType resource, int h) {
+        double p = price[resource.ordinal() * n + h];
+        return p == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : p;
+    }
+
+    /** Whether the host has room for the VM in the round's tentative state. */
+    public boolean fits(Vm vm, int h) {
+        if (vm.getNumberOfPes() > peCount[h] || vm.getMips() > peMips[h]) {
+            return false;
+        }
+        for (int r = 0; r < R; r++) {
+            if (RESOURCES[r].demand(vm) > free[r * n + h]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The host's bundle bid at its tentative state, whatever VM is asked for; Double.MAX_VALUE if it abstains. */
+    public double bundleBid(int h) {
+        double sum = 0;
+        for (int r = 0; r < R; r++) {
+            sum += price[r * n + h];
+        }
+        return sum == Double.POSITIVE_INFINITY ? Double.MAX_VALUE : sum;
+    }
+
+    public double getBalance(int h) {
+        return balance[h];
+    }
+
+    /**
+     * Books the VM on the host in the round's tentative state and charges it tokens.
+     */
+    public void commit(int h, Vm vm, double tokens) {
+        adjust(h, vm, tokens, 1);
+    }
+
+    /** Undoes a commit. */
+    public void release(int h, Vm vm, double tokens) {
+        adjust(h, vm, tokens, -1);
+    }
+
+    private void adjust(int h, Vm vm, double tokens, int sign) {
+        for (int r = 0; r < R; r++) {
+            free[r * n + h] -= sign * RESOURCES[r].demand(vm);
+        }
+        balance[h] -= sign * tokens;
+        touched.set(h);
+        reprice(h);
+        reorder(h);
+    }
+
+    private void reprice(int h) {
+        TokenBiddingHost host = (TokenBiddingHost) hosts.get(h);
+        double sum = 0;
+        for (int r = 0; r < R; r++) {
+            int i = r * n + h;
+            double utilization = capacity[i] <= 0 ? 1 : (capacity[i] - free[i]) / capacity[i];
+            double bid = host.bidAt(utilization, balance[h]);
+            price[i] = bid == Double.MAX_VALUE ? Double.POSITIVE_INFINITY : bid;
+            sum += price[i];
+        }
+        if (heap != null) {
+            bundle[h] = sum;
+        }
+    }
+
+    // Moves a repriced host to its place in the best-bid order
+    private void reorder(int h) {
+        if (heap != null) {
+            siftUp(position[h]);
+            siftDown(position[h]);
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    private boolean less(int a, int b) {
+        if (bundle[a] != bundle[b]) {
+            return bundle[a] < bundle[b];
+        }
+        if (balance[a] != balance[b]) {
+            return balance[a] > balance[b];
+        }
+        return a < b;
+    }
+
+    private void siftUp(int pos) {
+        int h = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(h, heap[parent])) {
+                break;
+            }
+            place(pos, heap[parent]);
+            pos = parent;
+        }
+        place(pos, h);
+    }
+
+    private void siftDown(int pos) {
+        int h = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], h)) {
+                break;
+            }
+            place(pos, heap[child]);
+            pos = child;
+        }
+        place(pos, h);
+    }
+
+    private void place(int pos, int h) {
+        heap[pos] = h;
+        position[h] = pos;
+    }
+
+    private void frontierUp(int i) {
+        int value = frontier[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[value], heap[frontier[parent]])) {
+                break;
+            }
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = value;
+    }
+
+    private void frontierDown(int size) {
+        if (size == 0) {
+            return;
+        }
+        int i = 0;
+        int value = frontier[0];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[frontier[child + 1]], heap[frontier[child]])) {
+                child++;
+            }
+            if (!less(heap[frontier[child]], heap[value])) {
+                break;
+            }
+            frontier[i] = frontier[child];
+            i = child;
+        }
+        frontier[i] = value;
+    }
+}
@@ -0,0 +1,113 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Summary of a placement decision, used to compare the per-VM auction with batch clearing.
+ * Utilization is projected from the hosts' current load plus the MIPS of the VMs assigned to them.
+ */
+public class PlacementQuality {
+
+    private final String label;
+    private final int placedVms;
+    private final int failedVms;
+    private final int hostsUsed;
+    private final double tokensPaid;
+    private final double meanUtilization;
+    private final double maxUtilization;
+    private final long clearingNanos;
+
+    private PlacementQuality(String label, int placedVms, int failedVms, int hostsUsed, double tokensPaid,
+            double meanUtilization, double maxUtilization, long clearingNanos) {
+        this.label = label;
+        this.placedVms = placedVms;
+        this.failedVms = failedVms;
+        this.hostsUsed = hostsUsed;
+        this.tokensPaid = tokensPaid;
+        this.meanUtilization = meanUtilization;
+        this.maxUtilization = maxUtilization;
+        this.clearingNanos = clearingNanos;
+    }
+
+    /**
+     * @param assignment assignment[i] is the host chosen for vms.get(i), or null if it was not placed
+     */
+    public static PlacementQuality of(String label, List<? extends Vm> vms, List<? extends Host> hosts, Host[] assignment,
+            double tokensPaid, long clearingNanos) {
+        double[] usedMips = new double[hosts.size()];
+        boolean[] used = new boolean[hosts.size()];
+        Map<Host, Integer> slots = new IdentityHashMap<>();
+        for (int h = 0; h < hosts.size(); h++) {
+            Host host = hosts.get(h);
+            usedMips[h] = host.getTotalMips() - host.getVmScheduler().getAvailableMips();
+            slots.put(host, h);
+        }
+        int placed = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] == null) {
+                continue;
+            }
+            int h = slots.get(assignment[i]);
+            Vm vm = vms.get(i);
+            usedMips[h] += vm.getMips() * vm.getNumberOfPes();
+            used[h] = true;
+            placed++;
+        }
+        int hostsUsed = 0;
+        double sum = 0;
+        double max = 0;
+        for (int h = 0; h < hosts.size(); h++) {
+            double utilization = usedMips[h] / hosts.get(h).getTotalMips();
+            sum += utilization;
+            max = Math.max(max, utilization);
+            if (used[h]) {
+                hostsUsed++;
+            }
+        }
+        double mean = hosts.isEmpty() ? 0 : sum / hosts.size();
+        return new PlacementQuality(label, placed, assignment.length - placed, hostsUsed, tokensPaid, mean, max, clearingNanos);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getPlacedVms() {
+        return placedVms;
+    }
+
+    public int getFailedVms() {
+        return failedVms;
+    }
+
+    public int getHostsUsed() {
+        return hostsUsed;
+    }
+
+    public double getTokensPaid() {
+        return tokensPaid;
+    }
+
+    public double getMeanUtilization() {
+        return meanUtilization;
+    }
+
+    /** Projected utilization of the busiest host; above 1.0 means the placement overcommits it. */
+    public double getMaxUtilization() {
+        return maxUtilization;
+    }
+
+    public long getClearingNanos() {
+        return clearingNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: placed %d, failed %d, hosts used %d, tokens paid %.2f, mean utilization %.2f%%, max utilization %.2f%%, clearing time %.3f ms",
+                label, placedVms, failedVms, hostsUsed, tokensPaid, meanUtilization * 100, maxUtilization * 100, clearingNanos / 1e6);
+    }
+}
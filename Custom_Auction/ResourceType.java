@@ -0,0 +1,97 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The resources hosts bid on. Each type knows how to read a host's capacity and free
+ * amount and a VM's demand, in MIPS, MB, Mbit/s and MB of storage respectively.
+ */
+public enum ResourceType {
+
+    CPU {
+        @Override
+        public double capacity(Host host) {
+            return host.getTotalMips();
+        }
+
+        @Override
+        public double available(Host host) {
+            return host.getVmScheduler().getAvailableMips();
+        }
+
+        @Override
+        public double demand(Vm vm) {
+            return vm.getMips() * vm.getNumberOfPes();
+        }
+
+        @Override
+        public double utilization(Host host) {
+            return TrackedHost.cpuUtilization(host);
+        }
+    },
+    RAM {
+        @Override
+        public double capacity(Host host) {
+            return host.getRam();
+        }
+
+        @Override
+        public double available(Host host) {
+            return host.getRamProvisioner().getAvailableRam();
+        }
+
+        @Override
+        public double demand(Vm vm) {
+            return vm.getRam();
+        }
+    },
+    BW {
+        @Override
+        public double capacity(Host host) {
+            return host.getBw();
+        }
+
+        @Override
+        public double available(Host host) {
+            return host.getBwProvisioner().getAvailableBw();
+        }
+
+        @Override
+        public double demand(Vm vm) {
+            return vm.getBw();
+        }
+    },
+    STORAGE {
+        /** Host only tracks free storage, so the capacity is what TokenBiddingHost saw at start. */
+        @Override
+        public double capacity(Host host) {
+            return host instanceof TokenBiddingHost ? ((TokenBiddingHost) host).getStorageCapacity() : host.getStorage();
+        }
+
+        @Override
+        public double available(Host host) {
+            return host.getStorage();
+        }
+
+        @Override
+        public double demand(Vm vm) {
+            return vm.getSize();
+        }
+    };
+
+    /** Number of resource types; the length of a price or demand vector. */
+    public static final int COUNT = values().length;
+
+    public abstract double capacity(Host host);
+
+    public abstract double available(Host host);
+
+    public abstract double demand(Vm vm);
+
+    /** Fraction of the host's capacity of this resource that is in use. */
+    public double utilization(Host host) {
+        double capacity = capacity(host);
+        return capacity <= 0 ? 1 : (capacity - available(host)) / capacity;
+    }
+}
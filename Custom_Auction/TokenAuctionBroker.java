@@ -4,74 +4,290 @@ import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TokenAuctionBroker extends DatacenterBroker {
 
+    private PlacementQuality lastPlacementQuality;
+    private PlacementLedger ledger;
+    private AuctionVmAllocationPolicy allocationPolicy;
+    private PlacementMetrics metrics;
+    private PricingRule pricingRule = PricingRule.FIXED;
+    private TokenEconomy economy;
+    private MultiResourceAuction auction;
+
     public TokenAuctionBroker(String name) throws Exception {
         super(name);
     }
 
+    /**
+     * Records every auction result and token deduction in the given ledger, and every bid
+     * of the per-VM auction; batch clearing collects no per-host bids to record.
+     */
+    public void setLedger(PlacementLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Commits each cleared placement to the hosts through the datacenter's policy in one
+     * batch. Without a policy the winner is only recorded on the VM.
+     */
+    public void setAllocationPolicy(AuctionVmAllocationPolicy allocationPolicy) {
+        this.allocationPolicy = allocationPolicy;
+    }
+
+    public void setMetrics(PlacementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Holds what winners pay in the economy's escrow until its next settlement instead of
+     * deducting it from their balance directly.
+     */
+    public void setTokenEconomy(TokenEconomy economy) {
+        this.economy = economy;
+    }
+
+    /**
+     * How many tokens the winner of a per-VM auction pays; PricingRule.FIXED by default.
+     * Batch clearing keeps its own flat price per VM.
+     */
+    public void setPricingRule(PricingRule pricingRule) {
+        this.pricingRule = pricingRule;
+    }
+
     // This is the main auction logic with the economic tie-breaker
     public void placeVmsUsingTokenAuction(List<Host> hostList) {
-        for (Object vmObject : this.vmList) {
-            Vm vm = (Vm) vmObject;
-            Log.printLine("--------------------------------------------------");
-            Log.printLine("Starting Token Auction for VM #" + vm.getId());
-
-            Host cpuWinner = runAuctionForResource("CPU", vm, hostList);
-            Host ramWinner = runAuctionForResource("RAM", vm, hostList);
-
-            if (cpuWinner != null && cpuWinner.getId() == ramWinner.getId()) {
-                TokenBiddingHost winningHost = (TokenBiddingHost) cpuWinner;
-                Log.printLine(String.format(">>> Host #%d won both CPU and RAM auctions for VM #%d", winningHost.getId(), vm.getId()));
-                vm.setHost(winningHost);
-                double totalCost = 25.0;
-                winningHost.deductTokens(totalCost);
-                Log.printLine(String.format(">>> Deducted %.2f tokens from Host #%d. New balance: %.2f", totalCost, winningHost.getId(), winningHost.getTokenBalance()));
+        long start = System.nanoTime();
+        List<Vm> vms = getSubmittedVms();
+        Host[] assignment = new Host[vms.size()];
+        double[] charges = new double[vms.size()];
+        double tokensPaid = 0;
+        // The auction is kept across calls; each call re-prices only the hosts that changed
+        if (auction == null || auction.getHosts() != hostList) {
+            if (auction != null) {
+                auction.untrackHosts();
+            }
+            auction = new MultiResourceAuction(hostList);
+            auction.trackHosts();
+        } else {
+            auction.startRound();
+        }
+        for (int i = 0; i < vms.size(); i++) {
+            Vm vm = vms.get(i);
+            AuctionLog.debug(() -> "--------------------------------------------------\n"
+                    + "Starting Token Auction for VM #" + vm.getId() + ", asking for " + describeDemand(vm));
+
+            int winner = runMultiResourceAuction(auction, vm, hostList);
+
+            if (winner >= 0) {
+                TokenBiddingHost winningHost = (TokenBiddingHost) hostList.get(winner);
+                AuctionLog.info(() -> String.format(">>> Host #%d won the CPU, RAM, BW and STORAGE bundle for VM #%d", winningHost.getId(), vm.getId()));
+                double totalCost = pricingRule.price(auction.getBundleBid(winner), auction.getRunnerUpBid());
+                charge(winningHost, totalCost);
+                auction.commit(winner, vm, totalCost);
+                if (metrics != null) {
+                    metrics.recordTokens(totalCost);
+                }
+                recordPlacement(vm, winningHost, totalCost, totalCost);
+                AuctionLog.recordTokens(CloudSim.clock(), vm.getId(), winningHost.getId(), totalCost);
+                AuctionLog.info(() -> String.format(">>> Deducted %.2f tokens from Host #%d. New balance: %.2f", totalCost, winningHost.getId(), winningHost.getTokenBalance()));
+                assignment[i] = winningHost;
+                charges[i] = totalCost;
+                tokensPaid += totalCost;
             } else {
-                Log.printLine(">>> AUCTION FAILED for VM #" + vm.getId() + ": No single host won both resource auctions.");
-                vm.setHost(null);
+                AuctionLog.info(() -> ">>> AUCTION FAILED for VM #" + vm.getId() + ": No host bid on the full resource bundle.");
             }
         }
+        applyAssignment(vms, assignment, charges);
+        lastPlacementQuality = PlacementQuality.of("Per-VM auction", vms, hostList, assignment, tokensPaid, System.nanoTime() - start);
     }
 
-    // This is the helper method for running individual resource auctions
-    private Host runAuctionForResource(String resourceType, Vm vm, List<Host> hostList) {
-        Log.printLine(String.format("--- Starting auction for %s tokens...", resourceType));
-        Host winningHost = null;
-        double lowestBid = Double.MAX_VALUE;
-
-        for (Host host : hostList) {
-            TokenBiddingHost biddingHost = (TokenBiddingHost) host;
-            if (biddingHost.isSuitableForVm(vm)) {
-                double currentBid = biddingHost.generateBid();
-                if (currentBid != Double.MAX_VALUE) {
-                    Log.printLine(String.format("VM #%d, %s: Host #%d bids %.2f", vm.getId(), resourceType, host.getId(), currentBid));
+    /**
+     * Places every submitted VM in a single clearing round instead of one auction per VM.
+     * See BatchAuctionClearing for how the assignment is solved.
+     */
+    public void placeVmsUsingBatchAuction(List<Host> hostList) {
+        List<Vm> vms = getSubmittedVms();
+        BatchAuctionClearing clearing = new BatchAuctionClearing();
+        long start = System.nanoTime();
+        BatchAuctionClearing.Result result = clearing.clear(vms, hostList);
+        if (metrics != null) {
+            metrics.recordRound(System.nanoTime() - start, (long) vms.size() * hostList.size());
+        }
+        Host[] assignment = result.getAssignment();
+        if (result.getUnrepaired() > 0) {
+            AuctionLog.info(() -> String.format(">>> Batch clearing: repair budget ran out with %d VMs not yet tried", result.getUnrepaired()));
+        }
+        for (int i = 0; i < vms.size(); i++) {
+            Vm vm = vms.get(i);
+            TokenBiddingHost winningHost = (TokenBiddingHost) assignment[i];
+            if (metrics != null) {
+                metrics.recordOutcome(winningHost != null, false);
+            }
+            if (winningHost != null) {
+                charge(winningHost, clearing.getPricePerVm());
+                if (metrics != null) {
+                    metrics.recordTokens(clearing.getPricePerVm());
                 }
+                double bundlePrice = result.getBundlePrices()[i];
+                recordPlacement(vm, winningHost, bundlePrice, clearing.getPricePerVm());
+                AuctionLog.recordWin(CloudSim.clock(), vm.getId(), winningHost.getId(), bundlePrice, false);
+                AuctionLog.recordTokens(CloudSim.clock(), vm.getId(), winningHost.getId(), clearing.getPricePerVm());
+                AuctionLog.info(() -> String.format(">>> Batch clearing: VM #%d placed on Host #%d for bundle bid %.2f. New balance: %.2f", vm.getId(), winningHost.getId(), bundlePrice, winningHost.getTokenBalance()));
+            } else {
+                AuctionLog.recordNoWinner(CloudSim.clock(), vm.getId());
+                AuctionLog.info(() -> ">>> BATCH CLEARING FAILED for VM #" + vm.getId() + ": No host can take it.");
+            }
+        }
+        double[] charges = new double[vms.size()];
+        Arrays.fill(charges, clearing.getPricePerVm());
+        applyAssignment(vms, assignment, charges);
+        lastPlacementQuality = result.getQuality();
+    }
+
+    /**
+     * Quality summary of the most recent placement run, or null if none has run yet.
+     */
+    public PlacementQuality getLastPlacementQuality() {
+        return lastPlacementQuality;
+    }
 
-                if (currentBid < lowestBid) {
-                    lowestBid = currentBid;
-                    winningHost = host;
-                } else if (currentBid == lowestBid) {
-                    TokenBiddingHost currentWinner = (TokenBiddingHost) winningHost;
-                    TokenBiddingHost newChallenger = (TokenBiddingHost) biddingHost;
-                    if (newChallenger.getTokenBalance() > currentWinner.getTokenBalance()) {
-                        Log.printLine(String.format("--- Tie-break: Host #%d wins with higher token balance.", newChallenger.getId()));
-                        winningHost = newChallenger;
-                    }
+    // Hands the cleared assignment to the hosts in one batch; if it fails nothing is placed and the winners are refunded
+    private boolean applyAssignment(List<Vm> vms, Host[] assignment, double[] charges) {
+        if (allocationPolicy == null) {
+            for (int i = 0; i < vms.size(); i++) {
+                vms.get(i).setHost(assignment[i]);
+            }
+            return true;
+        }
+        if (allocationPolicy.commitBatch(vms, assignment)) {
+            return true;
+        }
+        Log.printLine(">>> Hosts could not allocate the cleared batch; no VM was placed and the winners are refunded.");
+        for (int i = 0; i < vms.size(); i++) {
+            TokenBiddingHost winningHost = (TokenBiddingHost) assignment[i];
+            if (winningHost != null) {
+                if (economy != null) {
+                    economy.release(winningHost, charges[i]);
+                } else {
+                    winningHost.deductTokens(-charges[i]);
+                }
+                if (metrics != null) {
+                    metrics.recordTokens(-charges[i]);
+                }
+                if (ledger != null) {
+                    ledger.recordTokenDeduction(CloudSim.clock(), vms.get(i).getId(), winningHost.getId(), -charges[i]);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void charge(TokenBiddingHost winningHost, double amount) {
+        if (economy != null) {
+            economy.escrow(winningHost, amount);
+        } else {
+            winningHost.deductTokens(amount);
+        }
+    }
+
+    private void recordPlacement(Vm vm, TokenBiddingHost winningHost, double price, double tokensDeducted) {
+        if (ledger != null) {
+            double now = CloudSim.clock();
+            ledger.recordAuctionResult(now, vm.getId(), winningHost.getId(), price);
+            ledger.recordTokenDeduction(now, vm.getId(), winningHost.getId(), tokensDeducted);
+        }
+    }
+
+    private List<Vm> getSubmittedVms() {
+        List<Vm> vms = new ArrayList<>();
+        for (Object vmObject : this.vmList) {
+            vms.add((Vm) vmObject);
+        }
+        return vms;
+    }
+
+    // Scores every host on every resource in one pass and logs the per-resource bids; a winner above the reserve price does not win.
+    // A winner that cannot pay its charge drops out and the auction is rerun among the hosts with at least that balance.
+    private int runMultiResourceAuction(MultiResourceAuction auction, Vm vm, List<Host> hostList) {
+        long start = System.nanoTime();
+        long visited = 0;
+        double minBalance = Double.NEGATIVE_INFINITY;
+        int winner;
+        while (true) {
+            winner = auction.findWinner(vm, -1, minBalance);
+            visited += auction.getHostsVisited();
+            if (winner < 0) {
+                break;
+            }
+            double charge = pricingRule.price(auction.getBundleBid(winner), auction.getRunnerUpBid());
+            TokenBiddingHost winningHost = (TokenBiddingHost) hostList.get(winner);
+            if (winningHost.getTokenBalance() >= charge) {
+                break;
+            }
+            AuctionLog.info(() -> String.format("--- VM #%d: Host #%d cannot pay %.2f tokens with a balance of %.2f", vm.getId(), winningHost.getId(), charge, winningHost.getTokenBalance()));
+            minBalance = charge;
+        }
+        long elapsed = System.nanoTime() - start;
+        double now = CloudSim.clock();
+        boolean print = AuctionLog.isEnabled(AuctionLog.Level.DEBUG);
+        boolean tie = winner >= 0 && auction.getRunnerUpBid() == auction.getBundleBid(winner);
+        // Walking every host's bid is only needed for someone who looks at them
+        if (print || AuctionLog.isTracing() || ledger != null) {
+            for (int h = 0; h < hostList.size(); h++) {
+                double bundle = auction.getBundleBid(h);
+                if (Double.isNaN(bundle) || bundle == Double.MAX_VALUE) {
+                    continue;
+                }
+                if (print) {
+                    Log.printLine(String.format("VM #%d: Host #%d bids CPU %.2f, RAM %.2f, BW %.2f, STORAGE %.2f = %.2f", vm.getId(), hostList.get(h).getId(),
+                            auction.getPrice(ResourceType.CPU, h), auction.getPrice(ResourceType.RAM, h), auction.getPrice(ResourceType.BW, h),
+                            auction.getPrice(ResourceType.STORAGE, h), bundle));
+                }
+                AuctionLog.recordBid(now, vm.getId(), hostList.get(h).getId(), bundle);
+                if (ledger != null) {
+                    ledger.recordBid(now, vm.getId(), hostList.get(h).getId(), bundle);
                 }
             }
         }
-        if (winningHost != null) {
-            Log.printLine(String.format("--- %s auction for VM #%d won by Host #%d with bid %.2f", resourceType, vm.getId(), winningHost.getId(), lowestBid));
+        if (winner >= 0 && !pricingRule.accepts(auction.getBundleBid(winner))) {
+            double bundle = auction.getBundleBid(winner);
+            AuctionLog.info(() -> String.format("--- VM #%d: lowest bundle bid %.2f is above the reserve price %.2f", vm.getId(), bundle, pricingRule.getReservePrice()));
+            winner = -1;
+        }
+
+        if (metrics != null) {
+            metrics.recordRound(elapsed, visited);
+            metrics.recordOutcome(winner >= 0, winner >= 0 && tie);
         }
-        return winningHost;
+        if (winner >= 0) {
+            Host winningHost = hostList.get(winner);
+            double bundle = auction.getBundleBid(winner);
+            AuctionLog.recordWin(now, vm.getId(), winningHost.getId(), bundle, tie);
+            if (tie) {
+                AuctionLog.info(() -> String.format("--- Tie-break: Host #%d wins among equal bids on token balance.", winningHost.getId()));
+            }
+            AuctionLog.info(() -> String.format("--- Auction for VM #%d won by Host #%d with bundle bid %.2f", vm.getId(), winningHost.getId(), bundle));
+        } else {
+            AuctionLog.recordNoWinner(now, vm.getId());
+        }
+        return winner;
     }
 
-    @Override
-    protected void clearDatacenters() {
-        // Intentionally left empty
+    /** The VM's demand per resource, for logging, e.g. "[CPU 1000.00, RAM 512.00, ...]". */
+    private static String describeDemand(Vm vm) {
+        StringBuilder sb = new StringBuilder("[");
+        for (ResourceType type : ResourceType.values()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(String.format("%s %.2f", type, type.demand(vm)));
+        }
+        return sb.append(']').toString();
     }
 
 }
@@ -0,0 +1,21 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.List;
+
+/**
+ * Notified whenever the token balance of a TokenBiddingHost changes.
+ */
+public interface TokenBalanceListener {
+
+    void onBalanceChanged(TokenBiddingHost host, double newBalance);
+
+    /**
+     * Called once after many balances changed together, as in a settlement epoch. The
+     * default passes the hosts on one at a time.
+     */
+    default void onBalancesChanged(List<? extends TokenBiddingHost> hosts) {
+        for (TokenBiddingHost host : hosts) {
+            onBalanceChanged(host, host.getTokenBalance());
+        }
+    }
+}
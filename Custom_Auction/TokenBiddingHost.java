@@ -1,19 +1,33 @@
 package org.cloudbus.cloudsim.examples;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import org.cloudbus.cloudsim.Host;
+import java.util.Map;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
-public class TokenBiddingHost extends Host {
+public class TokenBiddingHost extends TrackedHost implements BiddingHost {
+
+    /** On equal bids the host with the higher token balance wins. */
+    public static final TieBreak HIGHER_TOKEN_BALANCE = (challenger, incumbent) ->
+            ((TokenBiddingHost) challenger).getTokenBalance() > ((TokenBiddingHost) incumbent).getTokenBalance();
 
     private double tokenBalance;
+    private final long storageCapacity;
+    private final List<TokenBalanceListener> balanceListeners = new ArrayList<>();
 
     public TokenBiddingHost(int id, RamProvisioner ramProvisioner, BwProvisioner bwProvisioner, long storage, List<? extends Pe> peList, VmScheduler vmScheduler, double initialTokenBalance) {
         super(id, ramProvisioner, bwProvisioner, storage, peList, vmScheduler);
         this.tokenBalance = initialTokenBalance;
+        this.storageCapacity = storage;
+    }
+
+    /** Storage the host started with; Host itself only tracks what is still free. */
+    public long getStorageCapacity() {
+        return storageCapacity;
     }
 
     public double getTokenBalance() {
@@ -21,17 +35,81 @@ public class TokenBiddingHost extends Host {
     }
 
     public void deductTokens(double amount) {
-        this.tokenBalance -= amount;
+        setTokenBalance(tokenBalance - amount);
+    }
+
+    /**
+     * Sets the balance without notifying the listeners; the caller reports a batch of
+     * changes through notifyBalancesChanged.
+     */
+    void setTokenBalanceSilently(double balance) {
+        this.tokenBalance = balance;
+    }
+
+    /** Sets the balance outright, e.g. when a checkpoint is restored. */
+    public void setTokenBalance(double balance) {
+        this.tokenBalance = balance;
+        for (TokenBalanceListener listener : balanceListeners) {
+            listener.onBalanceChanged(this, tokenBalance);
+        }
+    }
+
+    public void addBalanceListener(TokenBalanceListener listener) {
+        balanceListeners.add(listener);
     }
 
-    
+    public void removeBalanceListener(TokenBalanceListener listener) {
+        balanceListeners.remove(listener);
+    }
+
+    /**
+     * Reports balances set silently: every listener of these hosts gets one
+     * onBalancesChanged call with the hosts it follows.
+     */
+    static void notifyBalancesChanged(List<? extends TokenBiddingHost> hosts) {
+        Map<TokenBalanceListener, List<TokenBiddingHost>> changed = new LinkedHashMap<>();
+        for (TokenBiddingHost host : hosts) {
+            for (TokenBalanceListener listener : host.balanceListeners) {
+                changed.computeIfAbsent(listener, l -> new ArrayList<>()).add(host);
+            }
+        }
+        changed.forEach(TokenBalanceListener::onBalancesChanged);
+    }
+
+    /**
+     * The bundle bid: the sum of this host's bids for every resource type, or
+     * Double.MAX_VALUE if it abstains on any of them.
+     */
+    @Override
     public double generateBid() {
+        double bundle = 0;
+        for (ResourceType resource : ResourceType.values()) {
+            double bid = bidFor(resource);
+            if (bid == Double.MAX_VALUE) {
+                return Double.MAX_VALUE;
+            }
+            bundle += bid;
+        }
+        return bundle;
+    }
+
+    /**
+     * This host's asking price for one resource, priced on that resource's utilization.
+     */
+    public double bidFor(ResourceType resource) {
+        return bidAt(resource.utilization(this), this.tokenBalance);
+    }
+
+    /**
+     * The bid this host would make at the given utilization and token balance.
+     * Batch clearing uses it to price tentative placements without touching the host.
+     */
+    public double bidAt(double utilizationPercent, double tokenBalance) {
         double baseCost = 10.0; // Base cost 
-        double utilizationPercent = (getTotalMips() - getVmScheduler().getAvailableMips()) / getTotalMips();
         double bidPrice = baseCost + (utilizationPercent * 20); // More load = higher price
 
         // The host won't bid if it's running low on tokens 
-        if (this.tokenBalance < bidPrice) {
+        if (tokenBalance < bidPrice) {
             return Double.MAX_VALUE; 
         }
         return bidPrice;
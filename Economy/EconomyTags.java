@@ -0,0 +1,11 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
+/**
+ * Events a TokenEconomy sends to itself.
+ */
+public enum EconomyTags implements CloudSimTags {
+    /** End of a settlement epoch. */
+    SETTLE
+}
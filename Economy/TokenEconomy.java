@@ -0,0 +1,296 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * Keeps the tokens of a fleet of TokenBiddingHosts circulating, so hosts that win early
+ * do not drain out of the market.
+ *
+ * A host earns tokens for the VM capacity it hosts, earningRate tokens per allocated
+ * MIPS-second. What a host pays for winning an auction is held in escrow: it leaves the
+ * spendable balance at once, so the host cannot spend it twice, and is only paid out at
+ * the end of the epoch, or handed back if the placement is rolled back.
+ *
+ * Nothing is booked per auction or per allocation change beyond a few array updates.
+ * Balances are settled once per epoch in one pass over flat per-host arrays, and every
+ * balance listener, on the hosts or on the economy, hears about the whole epoch in a
+ * single onBalancesChanged call. Escrow and refunds notify the host's listeners at once.
+ * Epochs only run while some host runs VMs or tokens are in escrow; the rest is settled
+ * when the simulation ends.
+ *
+ * With adaptive pricing the economy also moves a clearing price toward the level where
+ * what hosts pay per epoch matches what they earn, and offers it as a PricingRule.
+ */
+public class TokenEconomy extends SimEntity implements HostLoadListener {
+
+    public static final double DEFAULT_EPOCH = 300;
+
+    /** A 1000 MIPS VM earns back the default auction price in ten minutes. */
+    public static final double DEFAULT_EARNING_RATE = PricingRule.DEFAULT_FIXED_PRICE / (1000.0 * 600);
+
+    /** Largest factor the clearing price moves by in one epoch. */
+    public static final double MAX_PRICE_STEP = 2.0;
+
+    private final List<TokenBiddingHost> hosts = new ArrayList<>();
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+    private final List<TokenBalanceListener> listeners = new ArrayList<>();
+
+    // Per-host state, indexed by position in the host list.
+    private final double[] balance;
+    private final double[] hostedMips;
+    private final double[] mipsSeconds;
+    private final double[] lastAccrual;
+    private final double[] escrow;
+
+    private double epoch = DEFAULT_EPOCH;
+    private double earningRate = DEFAULT_EARNING_RATE;
+    private boolean adaptivePricing;
+    private double clearingPrice = PricingRule.DEFAULT_FIXED_PRICE;
+
+    private int loadedHosts;
+    private double escrowTotal;
+    private boolean started;
+    private boolean epochScheduled;
+
+    private long epochs;
+    private long wins;
+    private double minted;
+    private double paid;
+    private double refunded;
+
+    public TokenEconomy(String name, List<? extends Host> hostList) {
+        super(name);
+        int n = hostList.size();
+        this.balance = new double[n];
+        this.hostedMips = new double[n];
+        this.mipsSeconds = new double[n];
+        this.lastAccrual = new double[n];
+        this.escrow = new double[n];
+        for (int h = 0; h < n; h++) {
+            Host host = hostList.get(h);
+            if (!(host instanceof TokenBiddingHost)) {
+                throw new IllegalArgumentException("A token economy needs TokenBiddingHosts, got " + host.getClass().getSimpleName());
+            }
+            TokenBiddingHost biddingHost = (TokenBiddingHost) host;
+            hosts.add(biddingHost);
+            slots.put(host, h);
+            biddingHost.addLoadListener(this);
+            hostedMips[h] = biddingHost.getUsedMips();
+            loadedHosts += hostedMips[h] > 0 ? 1 : 0;
+        }
+    }
+
+    /** Simulated seconds between settlements. */
+    public void setEpoch(double epoch) {
+        this.epoch = epoch;
+    }
+
+    /** Tokens earned per MIPS allocated to VMs per simulated second. */
+    public void setEarningRate(double earningRate) {
+        this.earningRate = earningRate;
+    }
+
+    /**
+     * Lets the clearing price follow supply and demand: after each epoch it is scaled by
+     * what hosts earned over what they paid, at most MAX_PRICE_STEP either way.
+     */
+    public void setAdaptivePricing(boolean adaptivePricing, double initialPrice) {
+        this.adaptivePricing = adaptivePricing;
+        this.clearingPrice = initialPrice;
+    }
+
+    /** Told about every settled epoch in one call, besides the hosts' own listeners. */
+    public void addBalanceListener(TokenBalanceListener listener) {
+        listeners.add(listener);
+    }
+
+    /** The price charged to every auction winner under pricingRule(). */
+    public double getClearingPrice() {
+        return clearingPrice;
+    }
+
+    /** Charges the current clearing price, whatever the bids. */
+    public PricingRule pricingRule() {
+        return (winningBid, runnerUpBid) -> clearingPrice;
+    }
+
+    /**
+     * Takes what a host pays for a won auction out of its spendable balance and holds it
+     * until the epoch is settled.
+     */
+    public void escrow(TokenBiddingHost host, double amount) {
+        int h = slotOf(host);
+        host.setTokenBalance(host.getTokenBalance() - amount);
+        escrow[h] += amount;
+        escrowTotal += amount;
+        wins++;
+        scheduleEpoch();
+    }
+
+    /** Hands back tokens held for a placement that did not go ahead. */
+    public void release(TokenBiddingHost host, double amount) {
+        int h = slotOf(host);
+        host.setTokenBalance(host.getTokenBalance() + amount);
+        escrow[h] -= amount;
+        escrowTotal -= amount;
+        refunded += amount;
+        wins--;
+    }
+
+    public double getEscrow(Host host) {
+        return escrow[slotOf(host)];
+    }
+
+    private int slotOf(Host host) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            throw new IllegalArgumentException("Host #" + host.getId() + " is not part of this economy");
+        }
+        return slot;
+    }
+
+    @Override
+    public void startEntity() {
+        started = true;
+        scheduleEpoch();
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        if (ev.getTag() == EconomyTags.SETTLE) {
+            epochScheduled = false;
+            settle();
+            scheduleEpoch();
+        }
+    }
+
+    @Override
+    public void shutdownEntity() {
+        if (escrowTotal != 0 || loadedHosts > 0) {
+            settle();
+        }
+    }
+
+    @Override
+    public void onLoadChanged(TrackedHost host) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            return;
+        }
+        int h = slot;
+        accrue(h, CloudSim.clock());
+        boolean wasLoaded = hostedMips[h] > 0;
+        hostedMips[h] = host.getUsedMips();
+        boolean nowLoaded = hostedMips[h] > 0;
+        if (wasLoaded != nowLoaded) {
+            loadedHosts += nowLoaded ? 1 : -1;
+        }
+        if (!started) {
+            return;
+        }
+        if (loadedHosts == 0 && escrowTotal == 0 && epochScheduled) {
+            // Settle what the last VMs earned now; do not keep the simulation running for it
+            CloudSim.cancelAll(getId(), new PredicateType(EconomyTags.SETTLE));
+            epochScheduled = false;
+            settle();
+        } else {
+            scheduleEpoch();
+        }
+    }
+
+    private void accrue(int h, double now) {
+        mipsSeconds[h] += hostedMips[h] * (now - lastAccrual[h]);
+        lastAccrual[h] = now;
+    }
+
+    private void scheduleEpoch() {
+        if (started && !epochScheduled && (loadedHosts > 0 || escrowTotal != 0)) {
+            epochScheduled = true;
+            schedule(getId(), epoch, EconomyTags.SETTLE);
+        }
+    }
+
+    /**
+     * Pays out the escrow and credits the earnings of every host in one pass over the
+     * per-host arrays, then writes the balances back and notifies the listeners once.
+     */
+    private void settle() {
+        double now = CloudSim.clock();
+        int n = hosts.size();
+        for (int h = 0; h < n; h++) {
+            balance[h] = hosts.get(h).getTokenBalance();
+        }
+        double rate = earningRate;
+        double earned = 0;
+        for (int h = 0; h < n; h++) {
+            double credit = rate * (mipsSeconds[h] + hostedMips[h] * (now - lastAccrual[h]));
+            balance[h] += credit;
+            earned += credit;
+            mipsSeconds[h] = 0;
+            lastAccrual[h] = now;
+            escrow[h] = 0;
+        }
+        for (int h = 0; h < n; h++) {
+            hosts.get(h).setTokenBalanceSilently(balance[h]);
+        }
+        TokenBiddingHost.notifyBalancesChanged(hosts);
+        for (TokenBalanceListener listener : listeners) {
+            listener.onBalancesChanged(hosts);
+        }
+
+        double epochPaid = escrowTotal;
+        if (adaptivePricing && epochPaid > 0) {
+            double step = earned > 0 ? earned / epochPaid : 1 / MAX_PRICE_STEP;
+            clearingPrice *= Math.max(1 / MAX_PRICE_STEP, Math.min(MAX_PRICE_STEP, step));
+        }
+        epochs++;
+        minted += earned;
+        paid += epochPaid;
+        escrowTotal = 0;
+    }
+
+    /** Spendable tokens of all hosts plus what is in escrow. */
+    public double getTotalSupply() {
+        double supply = escrowTotal;
+        for (TokenBiddingHost host : hosts) {
+            supply += host.getTokenBalance();
+        }
+        return supply;
+    }
+
+    public long getEpochs() {
+        return epochs;
+    }
+
+    /** Tokens credited to hosts for hosting VMs. */
+    public double getMinted() {
+        return minted;
+    }
+
+    /** Tokens paid out of escrow for won auctions. */
+    public double getPaid() {
+        return paid;
+    }
+
+    public void printReport() {
+        int priced = 0;
+        double lowest = Double.MAX_VALUE;
+        for (TokenBiddingHost host : hosts) {
+            lowest = Math.min(lowest, host.getTokenBalance());
+            priced += host.getTokenBalance() < clearingPrice ? 1 : 0;
+        }
+        Log.printLine(String.format("Token economy: %d epochs, %d wins paid %.2f, %.2f refunded, %.2f earned for hosting",
+                epochs, wins, paid, refunded, minted));
+        Log.printLine(String.format("Token economy: supply %.2f, lowest balance %.2f, %d hosts below the price of %.2f",
+                getTotalSupply(), hosts.isEmpty() ? 0 : lowest, priced, clearingPrice));
+    }
+}
@@ -0,0 +1,133 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Integrates host power over simulation time.
+ *
+ * Power is piecewise constant between utilization changes. Every change closes the
+ * previous interval (power x duration) and opens a new one at the new power. State is
+ * kept per host in primitive arrays, so a sample is a map lookup and a few array writes.
+ */
+public class EnergyMeter {
+
+    private final List<? extends Host> hosts;
+    private final PowerModel[] models;
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+
+    private final double[] lastTime;
+    private final double[] lastUtilization;
+    private final double[] lastPower;
+    private final double[] energyWs;
+    private final double[] busySeconds; // utilization integrated over time
+
+    private double startTime;
+
+    public EnergyMeter(List<? extends Host> hosts, PowerModel model) {
+        this(hosts, fill(hosts.size(), model));
+    }
+
+    /**
+     * @param models power model of each host, in host list order
+     */
+    public EnergyMeter(List<? extends Host> hosts, PowerModel[] models) {
+        if (models.length != hosts.size()) {
+            throw new IllegalArgumentException("Need one power model per host");
+        }
+        this.hosts = hosts;
+        this.models = models.clone();
+        int n = hosts.size();
+        lastTime = new double[n];
+        lastUtilization = new double[n];
+        lastPower = new double[n];
+        energyWs = new double[n];
+        busySeconds = new double[n];
+        for (int i = 0; i < n; i++) {
+            slots.put(hosts.get(i), i);
+            lastUtilization[i] = utilizationOf(hosts.get(i));
+            lastPower[i] = models[i].getPower(lastUtilization[i]);
+        }
+    }
+
+    /**
+     * Records that a host's utilization may have changed at the given time.
+     */
+    public void sample(Host host, double time) {
+        Integer slot = slots.get(host);
+        if (slot != null) {
+            advance(slot, time);
+            lastUtilization[slot] = utilizationOf(host);
+            lastPower[slot] = models[slot].getPower(lastUtilization[slot]);
+        }
+    }
+
+    /**
+     * Adds energy the power model does not see to a host, e.g. the cost of a live migration.
+     */
+    public void addEnergy(Host host, double joules) {
+        Integer slot = slots.get(host);
+        if (slot != null) {
+            energyWs[slot] += joules;
+        }
+    }
+
+    /**
+     * Closes the open interval of every host at the end of the simulation.
+     */
+    public void finish(double time) {
+        for (int i = 0; i < lastTime.length; i++) {
+            advance(i, time);
+        }
+    }
+
+    public double getEnergyKWh(int hostIndex) {
+        return energyWs[hostIndex] / 3600000;
+    }
+
+    public double getTotalEnergyKWh() {
+        double total = 0;
+        for (double ws : energyWs) {
+            total += ws;
+        }
+        return total / 3600000;
+    }
+
+    /** Time-weighted average utilization of a host since the meter started. */
+    public double getAverageUtilization(int hostIndex) {
+        double elapsed = lastTime[hostIndex] - startTime;
+        return elapsed > 0 ? busySeconds[hostIndex] / elapsed : lastUtilization[hostIndex];
+    }
+
+    public void printReport() {
+        for (int i = 0; i < hosts.size(); i++) {
+            Log.printLine(String.format("Host #%d average utilization is %.2f%%, consuming %.4f kWh",
+                    hosts.get(i).getId(), getAverageUtilization(i) * 100, getEnergyKWh(i)));
+        }
+        Log.printLine(String.format("Total Energy Consumption for all hosts: %.4f kWh", getTotalEnergyKWh()));
+    }
+
+    private void advance(int slot, double time) {
+        double duration = time - lastTime[slot];
+        if (duration > 0) {
+            energyWs[slot] += lastPower[slot] * duration;
+            busySeconds[slot] += lastUtilization[slot] * duration;
+            lastTime[slot] = time;
+        }
+    }
+
+    private static double utilizationOf(Host host) {
+        return TrackedHost.cpuUtilization(host);
+    }
+
+    private static PowerModel[] fill(int n, PowerModel model) {
+        PowerModel[] models = new PowerModel[n];
+        for (int i = 0; i < n; i++) {
+            models[i] = model;
+        }
+        return models;
+    }
+}
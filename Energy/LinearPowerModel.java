@@ -0,0 +1,20 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Power grows linearly from the idle draw to the full-load draw.
+ */
+public class LinearPowerModel implements PowerModel {
+
+    private final double idlePower;
+    private final double fullPower;
+
+    public LinearPowerModel(double idlePower, double fullPower) {
+        this.idlePower = idlePower;
+        this.fullPower = fullPower;
+    }
+
+    @Override
+    public double getPower(double utilization) {
+        return idlePower + (fullPower - idlePower) * utilization;
+    }
+}
@@ -0,0 +1,88 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * A Datacenter that reports every VM create, destroy and migration to an EnergyMeter, so
+ * host energy follows the real allocation over time instead of its final state.
+ */
+public class MeteredDatacenter extends Datacenter {
+
+    private final EnergyMeter energyMeter;
+    private int vmsCreated;
+    private int vmsFailed;
+
+    public MeteredDatacenter(String name, DatacenterCharacteristics characteristics, VmAllocationPolicy vmAllocationPolicy,
+            List<Storage> storageList, double schedulingInterval, EnergyMeter energyMeter) throws Exception {
+        super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+        this.energyMeter = energyMeter;
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        Vm vm = affectedVm(ev);
+        Host before = vm != null ? vm.getHost() : null;
+
+        super.processEvent(ev);
+
+        if (vm != null) {
+            if (isCreate(ev.getTag())) {
+                if (getVmAllocationPolicy().getHost(vm) != null) {
+                    vmsCreated++;
+                } else {
+                    vmsFailed++;
+                }
+            }
+            double now = CloudSim.clock();
+            if (before != null) {
+                energyMeter.sample(before, now);
+            }
+            Host after = vm.getHost();
+            if (after != null && after != before) {
+                energyMeter.sample(after, now);
+            }
+        }
+    }
+
+    public EnergyMeter getEnergyMeter() {
+        return energyMeter;
+    }
+
+    /** VM creation requests this datacenter accepted. */
+    public int getVmsCreated() {
+        return vmsCreated;
+    }
+
+    /** VM creation requests this datacenter rejected for lack of a suitable host. */
+    public int getVmsFailed() {
+        return vmsFailed;
+    }
+
+    private static boolean isCreate(CloudSimTags tag) {
+        return tag == CloudActionTags.VM_CREATE || tag == CloudActionTags.VM_CREATE_ACK;
+    }
+
+    private static Vm affectedVm(SimEvent ev) {
+        CloudSimTags tag = ev.getTag();
+        Object data = ev.getData();
+        if (isCreate(tag) || tag == CloudActionTags.VM_DESTROY || tag == CloudActionTags.VM_DESTROY_ACK) {
+            return data instanceof Vm ? (Vm) data : null;
+        }
+        if (tag == CloudActionTags.VM_MIGRATE && data instanceof Map) {
+            Object vm = ((Map<?, ?>) data).get("vm");
+            return vm instanceof Vm ? (Vm) vm : null;
+        }
+        return null;
+    }
+}
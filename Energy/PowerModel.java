@@ -0,0 +1,13 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Power draw of a host as a function of its CPU utilization.
+ */
+public interface PowerModel {
+
+    /**
+     * @param utilization CPU utilization between 0 and 1
+     * @return power drawn in Watts
+     */
+    double getPower(double utilization);
+}
@@ -0,0 +1,38 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Power model from a SPECpower table: measured Watts at 0%, 10%, ..., 100% load,
+ * interpolated linearly in between.
+ */
+public class SpecPowerModel implements PowerModel {
+
+    /** HP ProLiant ML110 G4 (Intel Xeon 3040), SPECpower_ssj2008. */
+    public static final SpecPowerModel HP_PROLIANT_ML110_G4 =
+            new SpecPowerModel(86, 89.4, 92.6, 96, 99.5, 102, 106, 108, 112, 114, 117);
+
+    /** HP ProLiant ML110 G5 (Intel Xeon 3075), SPECpower_ssj2008. */
+    public static final SpecPowerModel HP_PROLIANT_ML110_G5 =
+            new SpecPowerModel(93.7, 97, 101, 105, 110, 116, 121, 125, 129, 133, 135);
+
+    private final double[] watts;
+
+    public SpecPowerModel(double... watts) {
+        if (watts.length != 11) {
+            throw new IllegalArgumentException("A SPECpower table has 11 load levels, got " + watts.length);
+        }
+        this.watts = watts.clone();
+    }
+
+    @Override
+    public double getPower(double utilization) {
+        if (utilization < 0 || utilization > 1) {
+            throw new IllegalArgumentException("Utilization must be between 0 and 1: " + utilization);
+        }
+        if (utilization == 1) {
+            return watts[10];
+        }
+        int level = (int) (utilization * 10);
+        double fraction = utilization * 10 - level;
+        return watts[level] + (watts[level + 1] - watts[level]) * fraction;
+    }
+}
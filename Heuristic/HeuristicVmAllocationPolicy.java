@@ -1,7 +1,6 @@
 package org.cloudbus.cloudsim.examples;
 
 import java.util.List;
-import java.util.Map;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicySimple;
@@ -11,8 +10,18 @@ import org.cloudbus.cloudsim.VmAllocationPolicySimple;
  */
 public class HeuristicVmAllocationPolicy extends VmAllocationPolicySimple {
 
+    private final HostUtilizationIndex utilizationIndex;
+    private final HostCapacityIndex capacityIndex;
+    private PlacementMetrics metrics;
+
     public HeuristicVmAllocationPolicy(List<? extends Host> list) {
         super(list);
+        this.utilizationIndex = new HostUtilizationIndex(list);
+        this.capacityIndex = new HostCapacityIndex(list);
+    }
+
+    public void setMetrics(PlacementMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /**
@@ -23,26 +32,49 @@ public class HeuristicVmAllocationPolicy extends VmAllocationPolicySimple {
      */
     @Override
     public Host findHostForVm(Vm vm) {
-        Host bestHost = null;
-        double minUtilization = Double.MAX_VALUE;
-
-        
-        for (Host host : getHostList()) {
-           
-            if (host.isSuitableForVm(vm)) {
-                
-                
-                
-                double utilization = (host.getTotalMips() - host.getVmScheduler().getAvailableMips()) / host.getTotalMips();
-
-                
-                if (utilization < minUtilization) {
-                    minUtilization = utilization;
-                    bestHost = host;
-                }
-            }
+        // Same result as scanning every host for the lowest utilization, but hosts
+        // are visited in utilization order so the first suitable one is the answer.
+        // Hosts whose free capacity cannot cover the VM are skipped without asking
+        // their provisioners.
+        return utilizationIndex.findLeastUtilized(vm, host -> capacityIndex.mayFit(host, vm));
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm) {
+        long start = System.nanoTime();
+        boolean allocated = super.allocateHostForVm(vm);
+        Host host = getHost(vm);
+        if (host != null) {
+            refreshHost(host);
+        }
+        if (metrics != null) {
+            metrics.recordPlacement(System.nanoTime() - start, allocated);
+        }
+        return allocated;
+    }
+
+    @Override
+    public boolean allocateHostForVm(Vm vm, Host host) {
+        boolean allocated = super.allocateHostForVm(vm, host);
+        refreshHost(host);
+        return allocated;
+    }
+
+    @Override
+    public void deallocateHostForVm(Vm vm) {
+        Host host = getHost(vm);
+        super.deallocateHostForVm(vm);
+        if (host != null) {
+            refreshHost(host);
         }
-        return bestHost;
+    }
+
+    /**
+     * Re-reads a host's utilization and free capacity after a change made outside this policy.
+     */
+    public void refreshHost(Host host) {
+        utilizationIndex.update(host);
+        capacityIndex.update(host);
     }
 
 }
@@ -0,0 +1,227 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Buckets a fixed list of hosts by their free CPU, RAM and BW, so the hosts that can
+ * possibly take a VM are found without asking every host's provisioners.
+ *
+ * Each dimension is cut into levels equal slices of the largest capacity in the fleet,
+ * and a host sits in the bucket of its three free-capacity levels. A host with enough
+ * free capacity for a demand is never on a lower level than the demand, so a lookup only
+ * visits the buckets at or above the VM's levels and compares the cached free amounts of
+ * the hosts in them. What it returns is a superset of the hosts isSuitableForVm accepts,
+ * in host list order, so an auction or heuristic over the candidates picks the same host
+ * as one over the whole list.
+ *
+ * TrackedHosts tell the index when their allocation changes; any other host must be
+ * passed to update() after a VM is placed on or removed from it. An index that is
+ * replaced must be untracked, or the hosts keep it alive and keep updating it.
+ */
+public class HostCapacityIndex implements HostLoadListener {
+
+    public static final int DEFAULT_LEVELS = 8;
+
+    private static final ResourceType[] DIMENSIONS = {ResourceType.CPU, ResourceType.RAM, ResourceType.BW};
+    private static final int D = DIMENSIONS.length;
+
+    private final List<? extends Host> hosts;
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+    private final int levels;
+    private final double[] scale = new double[D]; // levels per unit of free capacity
+
+    private final double[] free;     // slot * D + d -> cached free amount
+    private final double[] peMips;   // slot -> capacity of one PE
+    private final int[] bucketOf;    // slot -> bucket
+    private final int[] bucketPos;   // slot -> position in its bucket
+    private final int[][] members;   // bucket -> slots
+    private final int[] memberCount; // bucket -> number of slots
+
+    // Scratch bitmap of candidate slots, so candidates come out in host list order.
+    private final long[] marks;
+    private final double[] demand = new double[D];
+
+    public HostCapacityIndex(List<? extends Host> hosts) {
+        this(hosts, DEFAULT_LEVELS);
+    }
+
+    public HostCapacityIndex(List<? extends Host> hosts, int levels) {
+        this.hosts = hosts;
+        this.levels = levels;
+        int n = hosts.size();
+        this.free = new double[n * D];
+        this.peMips = new double[n];
+        this.bucketOf = new int[n];
+        this.bucketPos = new int[n];
+        int buckets = levels * levels * levels;
+        this.members = new int[buckets][];
+        this.memberCount = new int[buckets];
+        this.marks = new long[(n + 63) >>> 6];
+
+        for (int d = 0; d < D; d++) {
+            double max = 0;
+            for (Host host : hosts) {
+                max = Math.max(max, DIMENSIONS[d].capacity(host));
+            }
+            scale[d] = max > 0 ? levels / max : 0;
+        }
+        for (int slot = 0; slot < n; slot++) {
+            Host host = hosts.get(slot);
+            slots.put(host, slot);
+            peMips[slot] = host.getVmScheduler().getPeCapacity();
+            read(slot, host);
+            add(slot, bucketFor(slot));
+            if (host instanceof TrackedHost) {
+                ((TrackedHost) host).addLoadListener(this);
+            }
+        }
+    }
+
+    public List<? extends Host> getHosts() {
+        return hosts;
+    }
+
+    /** Stops following the TrackedHosts' allocation changes. */
+    public void untrackHosts() {
+        for (Host host : hosts) {
+            if (host instanceof TrackedHost) {
+                ((TrackedHost) host).removeLoadListener(this);
+            }
+        }
+    }
+
+    @Override
+    public void onLoadChanged(TrackedHost host) {
+        update(host);
+    }
+
+    /**
+     * Re-reads a host's free capacity after its allocation changed. O(1).
+     */
+    public void update(Host host) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            return;
+        }
+        read(slot, host);
+        int bucket = bucketFor(slot);
+        if (bucket != bucketOf[slot]) {
+            remove(slot);
+            add(slot, bucket);
+        }
+    }
+
+    /**
+     * Whether the host's cached free capacity covers the VM. False means isSuitableForVm
+     * would reject it; true means it still has to be asked. O(1).
+     */
+    public boolean mayFit(Host host, Vm vm) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            return true;
+        }
+        for (int d = 0; d < D; d++) {
+            demand[d] = DIMENSIONS[d].demand(vm);
+        }
+        return fits(slot, vm);
+    }
+
+    /**
+     * The hosts whose free capacity covers the VM, in host list order. Only the buckets
+     * at or above the VM's levels are visited.
+     */
+    public List<Host> candidates(Vm vm) {
+        int[] from = new int[D];
+        for (int d = 0; d < D; d++) {
+            demand[d] = DIMENSIONS[d].demand(vm);
+            from[d] = level(d, demand[d]);
+        }
+        int count = 0;
+        for (int c = from[0]; c < levels; c++) {
+            for (int r = from[1]; r < levels; r++) {
+                int base = (c * levels + r) * levels;
+                for (int b = from[2]; b < levels; b++) {
+                    int bucket = base + b;
+                    int[] slotsInBucket = members[bucket];
+                    for (int k = 0; k < memberCount[bucket]; k++) {
+                        int slot = slotsInBucket[k];
+                        if (fits(slot, vm)) {
+                            marks[slot >>> 6] |= 1L << slot;
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        List<Host> candidates = new ArrayList<>(count);
+        for (int w = 0; w < marks.length && candidates.size() < count; w++) {
+            long word = marks[w];
+            marks[w] = 0;
+            while (word != 0) {
+                candidates.add(hosts.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return hosts.size();
+    }
+
+    // Compares against the demand last loaded into the scratch array
+    private boolean fits(int slot, Vm vm) {
+        if (vm.getMips() > peMips[slot]) {
+            return false;
+        }
+        int offset = slot * D;
+        for (int d = 0; d < D; d++) {
+            if (demand[d] > free[offset + d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void read(int slot, Host host) {
+        for (int d = 0; d < D; d++) {
+            free[slot * D + d] = DIMENSIONS[d].available(host);
+        }
+    }
+
+    private int level(int d, double amount) {
+        return Math.max(0, Math.min(levels - 1, (int) (amount * scale[d])));
+    }
+
+    private int bucketFor(int slot) {
+        int offset = slot * D;
+        return (level(0, free[offset]) * levels + level(1, free[offset + 1])) * levels + level(2, free[offset + 2]);
+    }
+
+    private void add(int slot, int bucket) {
+        int[] slotsInBucket = members[bucket];
+        if (slotsInBucket == null) {
+            slotsInBucket = new int[4];
+        } else if (memberCount[bucket] == slotsInBucket.length) {
+            slotsInBucket = Arrays.copyOf(slotsInBucket, 2 * slotsInBucket.length);
+        }
+        members[bucket] = slotsInBucket;
+        bucketOf[slot] = bucket;
+        bucketPos[slot] = memberCount[bucket];
+        slotsInBucket[memberCount[bucket]++] = slot;
+    }
+
+    private void remove(int slot) {
+        int bucket = bucketOf[slot];
+        int pos = bucketPos[slot];
+        int last = members[bucket][--memberCount[bucket]];
+        members[bucket][pos] = last;
+        bucketPos[last] = pos;
+    }
+}
@@ -0,0 +1,9 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Notified whenever a VM is created on, destroyed on or migrated to or from a TrackedHost.
+ */
+public interface HostLoadListener {
+
+    void onLoadChanged(TrackedHost host);
+}
@@ -0,0 +1,198 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Keeps a fixed list of hosts ordered by CPU utilization in an indexed binary heap.
+ * Hosts are ordered by (utilization, position in the host list), which is the same
+ * order a "first strictly lower" linear scan uses, so both pick the same host.
+ * The heap is updated per host when its allocation changes instead of being rebuilt.
+ */
+public class HostUtilizationIndex {
+
+    private final List<? extends Host> hosts;
+    private final Map<Host, Integer> slots = new IdentityHashMap<>();
+
+    private final double[] utilization; // slot -> cached utilization
+    private final int[] heap;            // heap position -> slot
+    private final int[] position;        // slot -> heap position
+
+    // Scratch best-first frontier (heap positions) reused by every lookup.
+    private final int[] frontier;
+
+    public HostUtilizationIndex(List<? extends Host> hosts) {
+        this.hosts = hosts;
+        int n = hosts.size();
+        this.utilization = new double[n];
+        this.heap = new int[n];
+        this.position = new int[n];
+        this.frontier = new int[Math.max(1, n)];
+
+        for (int slot = 0; slot < n; slot++) {
+            Host host = hosts.get(slot);
+            slots.put(host, slot);
+            utilization[slot] = utilizationOf(host);
+            heap[slot] = slot;
+            position[slot] = slot;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * CPU utilization of a host as used by the heuristic and the bidding hosts.
+     * O(1) for a TrackedHost.
+     */
+    public static double utilizationOf(Host host) {
+        return TrackedHost.cpuUtilization(host);
+    }
+
+    /**
+     * Re-reads the utilization of a host after its allocation changed. O(log n).
+     */
+    public void update(Host host) {
+        Integer slot = slots.get(host);
+        if (slot == null) {
+            return;
+        }
+        double old = utilization[slot];
+        double current = utilizationOf(host);
+        if (Double.compare(old, current) == 0) {
+            return;
+        }
+        utilization[slot] = current;
+        int pos = position[slot];
+        siftUp(pos);
+        siftDown(position[slot]);
+    }
+
+    /**
+     * Returns the least-utilized host that is suitable for the VM, or null.
+     * Hosts are visited in utilization order, so only the hosts that are less loaded
+     * than the answer (and rejected by isSuitableForVm) are examined.
+     */
+    public Host findLeastUtilized(Vm vm) {
+        return findLeastUtilized(vm, host -> true);
+    }
+
+    /**
+     * Like findLeastUtilized(Vm), skipping hosts the filter rejects.
+     */
+    public Host findLeastUtilized(Vm vm, Predicate<? super Host> filter) {
+        int n = heap.length;
+        if (n == 0) {
+            return null;
+        }
+        int size = 0;
+        frontier[size++] = 0;
+        while (size > 0) {
+            // Pop the smallest heap position from the frontier.
+            int pos = frontier[0];
+            frontier[0] = frontier[--size];
+            frontierDown(0, size);
+
+            Host host = hosts.get(heap[pos]);
+            if (filter.test(host) && host.isSuitableForVm(vm)) {
+                return host;
+            }
+            int left = 2 * pos + 1;
+            if (left < n) {
+                frontier[size] = left;
+                frontierUp(size++);
+            }
+            if (left + 1 < n) {
+                frontier[size] = left + 1;
+                frontierUp(size++);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return heap.length;
+    }
+
+    private boolean less(int slotA, int slotB) {
+        int cmp = Double.compare(utilization[slotA], utilization[slotB]);
+        return cmp < 0 || (cmp == 0 && slotA < slotB);
+    }
+
+    private void siftUp(int pos) {
+        int slot = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(slot, heap[parent])) {
+                break;
+            }
+            place(pos, heap[parent]);
+            pos = parent;
+        }
+        place(pos, slot);
+    }
+
+    private void siftDown(int pos) {
+        int n = heap.length;
+        int slot = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], slot)) {
+                break;
+            }
+            place(pos, heap[child]);
+            pos = child;
+        }
+        place(pos, slot);
+    }
+
+    private void place(int pos, int slot) {
+        heap[pos] = slot;
+        position[slot] = pos;
+    }
+
+    private void frontierUp(int i) {
+        int value = frontier[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[value], heap[frontier[parent]])) {
+                break;
+            }
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = value;
+    }
+
+    private void frontierDown(int i, int size) {
+        if (size == 0) {
+            return;
+        }
+        int value = frontier[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[frontier[child + 1]], heap[frontier[child]])) {
+                child++;
+            }
+            if (!less(heap[frontier[child]], heap[value])) {
+                break;
+            }
+            frontier[i] = frontier[child];
+            i = child;
+        }
+        frontier[i] = value;
+    }
+}
@@ -0,0 +1,113 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.provisioners.BwProvisioner;
+import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+
+/**
+ * A Host that caches its CPU utilization.
+ *
+ * The VmScheduler's allocation only changes when a VM is created, destroyed or migrated
+ * in or out, so the utilization is re-read from the scheduler at those points and every
+ * other read is a field access. Bidders, the heuristic index and the energy meter read
+ * it through cpuUtilization(Host), which falls back to the scheduler for plain hosts.
+ * HostLoadListeners are told about every such change, so consumers can keep track of
+ * which hosts changed instead of rescanning the fleet.
+ */
+public class TrackedHost extends Host {
+
+    private final double totalMips;
+    private double usedMips;
+    private double utilization;
+    private final List<HostLoadListener> loadListeners = new ArrayList<>();
+
+    public TrackedHost(int id, RamProvisioner ramProvisioner, BwProvisioner bwProvisioner, long storage, List<? extends Pe> peList, VmScheduler vmScheduler) {
+        super(id, ramProvisioner, bwProvisioner, storage, peList, vmScheduler);
+        this.totalMips = getTotalMips();
+        refreshUtilization();
+    }
+
+    /**
+     * CPU utilization of any host: the cached value for a TrackedHost, otherwise computed
+     * from its VmScheduler.
+     */
+    public static double cpuUtilization(Host host) {
+        if (host instanceof TrackedHost) {
+            return ((TrackedHost) host).getCpuUtilization();
+        }
+        return (host.getTotalMips() - host.getVmScheduler().getAvailableMips()) / host.getTotalMips();
+    }
+
+    /** Fraction of this host's MIPS allocated to VMs. O(1). */
+    public double getCpuUtilization() {
+        return utilization;
+    }
+
+    /** MIPS allocated to VMs. O(1). */
+    public double getUsedMips() {
+        return usedMips;
+    }
+
+    /**
+     * Re-reads the allocation from the VmScheduler. Only needed after changing the
+     * scheduler directly; the VM lifecycle methods below call it themselves.
+     */
+    public void refreshUtilization() {
+        VmScheduler scheduler = getVmScheduler();
+        usedMips = scheduler == null ? 0 : totalMips - scheduler.getAvailableMips();
+        utilization = totalMips > 0 ? usedMips / totalMips : 0;
+    }
+
+    public void addLoadListener(HostLoadListener listener) {
+        loadListeners.add(listener);
+    }
+
+    public void removeLoadListener(HostLoadListener listener) {
+        loadListeners.remove(listener);
+    }
+
+    @Override
+    public boolean vmCreate(Vm vm) {
+        boolean created = super.vmCreate(vm);
+        if (created) {
+            loadChanged();
+        }
+        return created;
+    }
+
+    @Override
+    public void vmDestroy(Vm vm) {
+        super.vmDestroy(vm);
+        loadChanged();
+    }
+
+    @Override
+    public void vmDestroyAll() {
+        super.vmDestroyAll();
+        loadChanged();
+    }
+
+    @Override
+    public void addMigratingInVm(Vm vm) {
+        super.addMigratingInVm(vm);
+        loadChanged();
+    }
+
+    @Override
+    public void removeMigratingInVm(Vm vm) {
+        super.removeMigratingInVm(vm);
+        loadChanged();
+    }
+
+    private void loadChanged() {
+        refreshUtilization();
+        for (HostLoadListener listener : loadListeners) {
+            listener.onLoadChanged(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Inclusion proof for one host's token balance in a TokenStateTree.
+ * siblings[0] is the sibling of the leaf and the last entry is the sibling just below the root.
+ */
+public class BalanceProof {
+
+    private final int hostId;
+    private final double balance;
+    private final byte[][] siblings;
+
+    BalanceProof(int hostId, double balance, byte[][] siblings) {
+        this.hostId = hostId;
+        this.balance = balance;
+        this.siblings = siblings;
+    }
+
+    public int getHostId() {
+        return hostId;
+    }
+
+    public double getBalance() {
+        return balance;
+    }
+
+    public int getDepth() {
+        return siblings.length;
+    }
+
+    public byte[] getSibling(int level) {
+        return siblings[level].clone();
+    }
+
+    /**
+     * Recomputes the root from the leaf and the siblings and compares it with the given root.
+     */
+    public boolean verify(byte[] stateRoot) {
+        MessageDigest digest = TokenStateTree.newDigest();
+        byte[] node = new byte[TokenStateTree.HASH_SIZE];
+        TokenStateTree.hashLeaf(digest, hostId, balance, node, 0);
+        byte[] pair = new byte[2 * TokenStateTree.HASH_SIZE];
+        int index = hostId;
+        for (byte[] sibling : siblings) {
+            if ((index & 1) == 0) {
+                System.arraycopy(node, 0, pair, 0, TokenStateTree.HASH_SIZE);
+                System.arraycopy(sibling, 0, pair, TokenStateTree.HASH_SIZE, TokenStateTree.HASH_SIZE);
+            } else {
+                System.arraycopy(sibling, 0, pair, 0, TokenStateTree.HASH_SIZE);
+                System.arraycopy(node, 0, pair, TokenStateTree.HASH_SIZE, TokenStateTree.HASH_SIZE);
+            }
+            TokenStateTree.hashInner(digest, pair, 0, node, 0);
+            index >>>= 1;
+        }
+        return Arrays.equals(node, stateRoot);
+    }
+}
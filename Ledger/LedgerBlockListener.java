@@ -0,0 +1,9 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Notified by a PlacementLedger each time it seals a block.
+ */
+public interface LedgerBlockListener {
+
+    void onBlockSealed(long height, byte[] blockHash, int transactionCount);
+}
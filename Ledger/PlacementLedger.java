@@ -0,0 +1,335 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Append-only, hash-chained ledger of auction activity.
+ *
+ * Transactions are fixed-size 32 byte records collected in a reusable buffer. Every
+ * transactionsPerBlock records are sealed into a block whose header holds the height,
+ * the previous block hash, the SHA-256 of the block body and, when a TokenStateTree is
+ * attached, the token state root after the block. Blocks are written into
+ * memory-mapped segment files (segment-000000.ldg, ...) that are preallocated and
+ * rolled when full, so an append is a few buffer puts and allocates nothing. A segment
+ * is cut back to what was written when it is rolled or the ledger is closed.
+ *
+ * What is recorded is up to the caller. TokenAuctionBroker records every bid of its
+ * per-VM auctions; batch clearing never collects per-host bids, so its blocks only hold
+ * auction results and token deductions.
+ *
+ * Segment layout: a sequence of [header | body | blockHash] entries, terminated by a
+ * zero magic word. blockHash is the SHA-256 of the header.
+ */
+public class PlacementLedger implements Closeable {
+
+    public static final int TRANSACTION_SIZE = 32;
+    public static final int HASH_SIZE = 32;
+    // magic, height, sealTime, txCount, previousHash, bodyHash, stateRoot
+    public static final int HEADER_SIZE = 4 + 8 + 8 + 4 + HASH_SIZE + HASH_SIZE + HASH_SIZE;
+    public static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+
+    public static final int DEFAULT_TRANSACTIONS_PER_BLOCK = 1024;
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private final Path directory;
+    private final int transactionsPerBlock;
+    private final long segmentSize;
+
+    private final ByteBuffer pending;
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final MessageDigest digest;
+    private final byte[] previousHash = new byte[HASH_SIZE];
+    private final byte[] bodyHash = new byte[HASH_SIZE];
+    private final byte[] stateRoot = new byte[HASH_SIZE];
+    private TokenStateTree stateTree;
+    private LedgerBlockListener blockListener;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private boolean closed;
+
+    private long height;
+    private long transactionCount;
+    private double lastTime;
+
+    /**
+     * Starts a new ledger in the given directory, which must not already hold one.
+     */
+    public PlacementLedger(Path directory) throws IOException {
+        this(directory, DEFAULT_TRANSACTIONS_PER_BLOCK, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public PlacementLedger(Path directory, int transactionsPerBlock, long segmentSize) throws IOException {
+        long blockSize = HEADER_SIZE + (long) transactionsPerBlock * TRANSACTION_SIZE + HASH_SIZE;
+        if (transactionsPerBlock < 1 || segmentSize < blockSize + 4) {
+            throw new IllegalArgumentException("Segment of " + segmentSize + " bytes cannot hold a block of " + transactionsPerBlock + " transactions");
+        }
+        this.directory = directory;
+        this.transactionsPerBlock = transactionsPerBlock;
+        this.segmentSize = segmentSize;
+        this.pending = ByteBuffer.allocateDirect(transactionsPerBlock * TRANSACTION_SIZE);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        Files.createDirectories(directory);
+        openSegment(0);
+    }
+
+    /**
+     * Commits the root of the given state tree in every block sealed from now on.
+     */
+    public void setStateTree(TokenStateTree stateTree) {
+        this.stateTree = stateTree;
+    }
+
+    /**
+     * Hands every sealed block to the listener, e.g. a ConsensusCluster.
+     */
+    public void setBlockListener(LedgerBlockListener blockListener) {
+        this.blockListener = blockListener;
+    }
+
+    public void recordBid(double time, int vmId, int hostId, double bid) {
+        append(TransactionType.BID, time, vmId, hostId, bid);
+    }
+
+    public void recordAuctionResult(double time, int vmId, int hostId, double price) {
+        append(TransactionType.AUCTION_RESULT, time, vmId, hostId, price);
+    }
+
+    public void recordTokenDeduction(double time, int vmId, int hostId, double amount) {
+        append(TransactionType.TOKEN_DEDUCTION, time, vmId, hostId, amount);
+    }
+
+    /**
+     * Appends one transaction; seals a block when the batch is full.
+     * Record layout: type(1) reserved(3) vmId(4) hostId(4) reserved(4) time(8) amount(8).
+     */
+    public void append(TransactionType type, double time, int vmId, int hostId, double amount) {
+        ensureOpen();
+        pending.put(type.getCode()).put((byte) 0).putShort((short) 0)
+                .putInt(vmId).putInt(hostId).putInt(0)
+                .putDouble(time).putDouble(amount);
+        transactionCount++;
+        lastTime = time;
+        if (!pending.hasRemaining()) {
+            sealBlock();
+        }
+    }
+
+    /**
+     * Seals the pending transactions into a block, even if the batch is not full.
+     */
+    public void sealBlock() {
+        ensureOpen();
+        int txCount = pending.position() / TRANSACTION_SIZE;
+        if (txCount == 0) {
+            return;
+        }
+        int blockSize = HEADER_SIZE + txCount * TRANSACTION_SIZE + HASH_SIZE;
+        if (segment.remaining() < blockSize + 4) {
+            openSegment(segmentIndex + 1);
+        }
+
+        pending.flip();
+        digest.update(pending);
+        digestInto(bodyHash);
+
+        if (stateTree != null) {
+            System.arraycopy(stateTree.getRoot(), 0, stateRoot, 0, HASH_SIZE);
+        }
+        header.clear();
+        header.putInt(BLOCK_MAGIC).putLong(height).putDouble(lastTime).putInt(txCount)
+                .put(previousHash).put(bodyHash).put(stateRoot);
+        header.flip();
+        segment.put(header);
+
+        pending.flip();
+        segment.put(pending);
+
+        header.flip();
+        digest.update(header);
+        digestInto(previousHash);
+        segment.put(previousHash);
+        // Terminator; overwritten by the next block.
+        segment.putInt(segment.position(), 0);
+
+        pending.clear();
+        if (blockListener != null) {
+            blockListener.onBlockSealed(height, getHeadHash(), txCount);
+        }
+        height++;
+    }
+
+    /** Number of sealed blocks. */
+    public long getHeight() {
+        return height;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /** Hash of the last sealed block, or all zeros before the first block. */
+    public byte[] getHeadHash() {
+        return Arrays.copyOf(previousHash, HASH_SIZE);
+    }
+
+    /** State root committed in the last sealed block, all zeros without a state tree. */
+    public byte[] getStateRoot() {
+        return Arrays.copyOf(stateRoot, HASH_SIZE);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Forces sealed blocks of the current segment to disk. */
+    public void flush() {
+        ensureOpen();
+        segment.force();
+    }
+
+    /**
+     * Seals the pending transactions and cuts the last segment back to what was written.
+     * Nothing can be recorded afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        sealBlock();
+        closeSegment();
+        closed = true;
+    }
+
+    /**
+     * Deletes a closed ledger's segments and its directory, e.g. a temporary ledger once
+     * it has been verified.
+     */
+    public static void delete(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Re-reads every segment in a ledger directory and checks the body hashes and the
+     * hash links between blocks.
+     *
+     * @return the number of valid blocks
+     * @throws IllegalStateException if a block does not match its hashes
+     */
+    public static long verify(Path directory) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] expectedPrevious = new byte[HASH_SIZE];
+        byte[] hash = new byte[HASH_SIZE];
+        long blocks = 0;
+        for (int index = 0; Files.exists(segmentPath(directory, index)); index++) {
+            try (FileChannel in = FileChannel.open(segmentPath(directory, index), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                while (buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == BLOCK_MAGIC) {
+                    int start = buffer.position();
+                    long height = buffer.getLong(start + 4);
+                    int txCount = buffer.getInt(start + 20);
+                    if (height != blocks) {
+                        throw new IllegalStateException("Block " + blocks + " has height " + height);
+                    }
+                    for (int i = 0; i < HASH_SIZE; i++) {
+                        if (buffer.get(start + 24 + i) != expectedPrevious[i]) {
+                            throw new IllegalStateException("Block " + height + " does not link to the previous block");
+                        }
+                    }
+                    ByteBuffer body = buffer.duplicate();
+                    body.position(start + HEADER_SIZE).limit(start + HEADER_SIZE + txCount * TRANSACTION_SIZE);
+                    digest.update(body);
+                    digest.digest(hash, 0, HASH_SIZE);
+                    for (int i = 0; i < HASH_SIZE; i++) {
+                        if (buffer.get(start + 24 + HASH_SIZE + i) != hash[i]) {
+                            throw new IllegalStateException("Block " + height + " body hash mismatch");
+                        }
+                    }
+                    ByteBuffer head = buffer.duplicate();
+                    head.position(start).limit(start + HEADER_SIZE);
+                    digest.update(head);
+                    digest.digest(expectedPrevious, 0, HASH_SIZE);
+                    int hashAt = start + HEADER_SIZE + txCount * TRANSACTION_SIZE;
+                    for (int i = 0; i < HASH_SIZE; i++) {
+                        if (buffer.get(hashAt + i) != expectedPrevious[i]) {
+                            throw new IllegalStateException("Block " + height + " hash mismatch");
+                        }
+                    }
+                    buffer.position(hashAt + HASH_SIZE);
+                    blocks++;
+                }
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return blocks;
+    }
+
+    static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format("segment-%06d.ldg", index));
+    }
+
+    private void openSegment(int index) {
+        try {
+            if (channel != null) {
+                closeSegment();
+            }
+            channel = FileChannel.open(segmentPath(directory, index),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segmentIndex = index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open ledger segment " + index + " in " + directory, e);
+        }
+    }
+
+    // Cuts the preallocated segment back to its blocks and the terminator; the mapping
+    // must not be touched after that, so it is dropped
+    private void closeSegment() throws IOException {
+        segment.force();
+        channel.truncate(segment.position() + 4L);
+        channel.close();
+        segment = null;
+        channel = null;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Ledger in " + directory + " is closed");
+        }
+    }
+
+    private void digestInto(byte[] target) {
+        try {
+            digest.digest(target, 0, HASH_SIZE);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
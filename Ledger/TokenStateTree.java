@@ -0,0 +1,259 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * World state of host token balances committed to by a Merkle tree keyed by host id.
+ *
+ * Leaf i holds SHA-256(0x00 | id | balance) of host i; absent hosts keep the precomputed
+ * empty hash of their level. The tree is dense: nodes live in one flat byte array in heap
+ * order (root at 1) with a leaf for every id up to the next power of two above the
+ * largest id set, so memory is O(max host id), a little over 64 bytes per id, however
+ * few hosts are present. That suits the small, contiguous ids CloudSim gives hosts.
+ *
+ * A balance change rehashes only the path from its leaf to the root, log2(capacity)
+ * hashes, no matter how many hosts there are. A batch of changes rehashes each shared
+ * ancestor once, level by level.
+ */
+public class TokenStateTree implements TokenBalanceListener {
+
+    public static final int HASH_SIZE = 32;
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte INNER_PREFIX = 0x01;
+
+    private final MessageDigest digest = newDigest();
+    private final byte[] pair = new byte[2 * HASH_SIZE];
+
+    private int capacity;
+    private int depth;
+    private byte[] nodes;
+    private double[] balances;
+    private boolean[] present;
+    private byte[][] emptyHashes;
+
+    public TokenStateTree() {
+        this(1024);
+    }
+
+    public TokenStateTree(int expectedHosts) {
+        resize(Math.max(2, Integer.highestOneBit(Math.max(1, expectedHosts - 1)) << 1));
+    }
+
+    /**
+     * Adds the current balance of every TokenBiddingHost in the list and follows their changes.
+     */
+    public void track(List<? extends Host> hosts) {
+        for (Host host : hosts) {
+            TokenBiddingHost biddingHost = (TokenBiddingHost) host;
+            update(biddingHost.getId(), biddingHost.getTokenBalance());
+            biddingHost.addBalanceListener(this);
+        }
+    }
+
+    @Override
+    public void onBalanceChanged(TokenBiddingHost host, double newBalance) {
+        update(host.getId(), newBalance);
+    }
+
+    @Override
+    public void onBalancesChanged(List<? extends TokenBiddingHost> hosts) {
+        int[] hostIds = new int[hosts.size()];
+        double[] newBalances = new double[hosts.size()];
+        for (int i = 0; i < hostIds.length; i++) {
+            hostIds[i] = hosts.get(i).getId();
+            newBalances[i] = hosts.get(i).getTokenBalance();
+        }
+        updateAll(hostIds, newBalances);
+    }
+
+    /**
+     * Sets many balances and rehashes every affected inner node once: for k changed leaves
+     * at most k + k/2 + ... hashes instead of k * log2(capacity).
+     */
+    public void updateAll(int[] hostIds, double[] newBalances) {
+        if (hostIds.length == 0) {
+            return;
+        }
+        int maxId = 0;
+        for (int id : hostIds) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Host id must not be negative: " + id);
+            }
+            maxId = Math.max(maxId, id);
+        }
+        if (maxId >= capacity) {
+            int newCapacity = capacity;
+            while (newCapacity <= maxId) {
+                newCapacity <<= 1;
+            }
+            resize(newCapacity);
+        }
+        int[] level = new int[hostIds.length];
+        for (int i = 0; i < hostIds.length; i++) {
+            int id = hostIds[i];
+            balances[id] = newBalances[i];
+            present[id] = true;
+            hashLeaf(digest, id, newBalances[i], nodes, (capacity + id) * HASH_SIZE);
+            level[i] = capacity + id;
+        }
+        // Sorted node numbers stay sorted when halved, so equal parents are adjacent.
+        Arrays.sort(level);
+        int size = level.length;
+        while (level[0] > 1) {
+            int parents = 0;
+            for (int i = 0; i < size; i++) {
+                int parent = level[i] >>> 1;
+                if (parents == 0 || level[parents - 1] != parent) {
+                    level[parents++] = parent;
+                }
+            }
+            size = parents;
+            for (int i = 0; i < size; i++) {
+                rehash(level[i]);
+            }
+        }
+    }
+
+    /**
+     * Sets a host's balance and rehashes the path from its leaf to the root.
+     */
+    public void update(int hostId, double balance) {
+        if (hostId < 0) {
+            throw new IllegalArgumentException("Host id must not be negative: " + hostId);
+        }
+        if (hostId >= capacity) {
+            int newCapacity = capacity;
+            while (newCapacity <= hostId) {
+                newCapacity <<= 1;
+            }
+            resize(newCapacity);
+        }
+        balances[hostId] = balance;
+        present[hostId] = true;
+        int node = capacity + hostId;
+        hashLeaf(digest, hostId, balance, nodes, node * HASH_SIZE);
+        for (node >>>= 1; node >= 1; node >>>= 1) {
+            rehash(node);
+        }
+    }
+
+    /** Current state root. */
+    public byte[] getRoot() {
+        return Arrays.copyOfRange(nodes, HASH_SIZE, 2 * HASH_SIZE);
+    }
+
+    public boolean contains(int hostId) {
+        return hostId >= 0 && hostId < capacity && present[hostId];
+    }
+
+    public double getBalance(int hostId) {
+        if (!contains(hostId)) {
+            throw new IllegalArgumentException("Host #" + hostId + " is not in the state tree");
+        }
+        return balances[hostId];
+    }
+
+    /**
+     * Inclusion proof for a host's balance against the current root. O(log n).
+     */
+    public BalanceProof prove(int hostId) {
+        double balance = getBalance(hostId);
+        byte[][] siblings = new byte[depth][];
+        int node = capacity + hostId;
+        for (int level = 0; level < depth; level++, node >>>= 1) {
+            int sibling = node ^ 1;
+            siblings[level] = Arrays.copyOfRange(nodes, sibling * HASH_SIZE, (sibling + 1) * HASH_SIZE);
+        }
+        return new BalanceProof(hostId, balance, siblings);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private void rehash(int node) {
+        System.arraycopy(nodes, 2 * node * HASH_SIZE, pair, 0, 2 * HASH_SIZE);
+        hashInner(digest, pair, 0, nodes, node * HASH_SIZE);
+    }
+
+    /**
+     * Grows the tree to a new power-of-two capacity, keeping existing leaves.
+     */
+    private void resize(int newCapacity) {
+        int newDepth = Integer.numberOfTrailingZeros(newCapacity);
+        byte[][] empty = new byte[newDepth + 1][HASH_SIZE];
+        for (int level = 1; level <= newDepth; level++) {
+            System.arraycopy(empty[level - 1], 0, pair, 0, HASH_SIZE);
+            System.arraycopy(empty[level - 1], 0, pair, HASH_SIZE, HASH_SIZE);
+            hashInner(digest, pair, 0, empty[level], 0);
+        }
+
+        double[] oldBalances = balances;
+        boolean[] oldPresent = present;
+        capacity = newCapacity;
+        depth = newDepth;
+        emptyHashes = empty;
+        nodes = new byte[2 * newCapacity * HASH_SIZE];
+        balances = new double[newCapacity];
+        present = new boolean[newCapacity];
+
+        // Fill every level with its empty hash, then hash in the existing leaves.
+        for (int level = 0, first = newCapacity; level <= newDepth; level++, first >>>= 1) {
+            for (int node = first; node < 2 * first; node++) {
+                System.arraycopy(emptyHashes[level], 0, nodes, node * HASH_SIZE, HASH_SIZE);
+            }
+        }
+        if (oldBalances != null) {
+            for (int id = 0; id < oldBalances.length; id++) {
+                if (oldPresent[id]) {
+                    balances[id] = oldBalances[id];
+                    present[id] = true;
+                    hashLeaf(digest, id, oldBalances[id], nodes, (newCapacity + id) * HASH_SIZE);
+                }
+            }
+            for (int node = newCapacity - 1; node >= 1; node--) {
+                rehash(node);
+            }
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static void hashLeaf(MessageDigest digest, int hostId, double balance, byte[] out, int offset) {
+        long bits = Double.doubleToLongBits(balance);
+        digest.update(LEAF_PREFIX);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            digest.update((byte) (hostId >>> shift));
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (bits >>> shift));
+        }
+        finish(digest, out, offset);
+    }
+
+    static void hashInner(MessageDigest digest, byte[] children, int offset, byte[] out, int outOffset) {
+        digest.update(INNER_PREFIX);
+        digest.update(children, offset, 2 * HASH_SIZE);
+        finish(digest, out, outOffset);
+    }
+
+    private static void finish(MessageDigest digest, byte[] out, int offset) {
+        try {
+            digest.digest(out, offset, HASH_SIZE);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
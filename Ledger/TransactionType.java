@@ -0,0 +1,30 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Kinds of transactions recorded in the placement ledger.
+ */
+public enum TransactionType {
+
+    BID((byte) 1),
+    AUCTION_RESULT((byte) 2),
+    TOKEN_DEDUCTION((byte) 3);
+
+    private final byte code;
+
+    TransactionType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static TransactionType fromCode(byte code) {
+        for (TransactionType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type " + code);
+    }
+}
@@ -0,0 +1,160 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A market in which several brokers auction their VMs at the same time against one
+ * shared TokenBiddingHost pool.
+ *
+ * Each broker runs on its own thread and auctions its VMs in order: it finds the lowest
+ * bundle bid in a HostReservationBook and reserves the VM's resources and price on that
+ * host. If another broker took the capacity or tokens first the reservation aborts and
+ * the auction is rerun against the new state, up to maxAttempts times. Nothing touches
+ * the hosts while the brokers run; commit applies every winner through an
+ * AuctionVmAllocationPolicy afterwards, on the simulation thread.
+ */
+public class ConcurrentAuctionMarket {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+
+    private final List<? extends Host> hosts;
+    private double pricePerVm = BatchAuctionClearing.DEFAULT_PRICE_PER_VM;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    public ConcurrentAuctionMarket(List<? extends Host> hosts) {
+        this.hosts = hosts;
+    }
+
+    /** Tokens a host pays for each VM it wins. */
+    public void setPricePerVm(double pricePerVm) {
+        this.pricePerVm = pricePerVm;
+    }
+
+    /** Auctions run for one VM before it is given up; the first one included. */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs one market round with one thread per broker, all released together.
+     *
+     * @param brokerVms the VMs of each broker, in the order that broker auctions them
+     */
+    public MarketResult run(List<? extends List<? extends Vm>> brokerVms) throws InterruptedException {
+        HostReservationBook book = new HostReservationBook(hosts);
+        long price = HostReservationBook.toFixed(pricePerVm);
+        int brokers = brokerVms.size();
+        ExecutorService pool = Executors.newFixedThreadPool(brokers);
+        CountDownLatch ready = new CountDownLatch(brokers);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<BrokerRun>> futures = new ArrayList<>(brokers);
+            for (List<? extends Vm> vms : brokerVms) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return auction(book, vms, price);
+                }));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            List<BrokerRun> runs = new ArrayList<>(brokers);
+            for (Future<BrokerRun> future : futures) {
+                runs.add(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Host[][] assignments = new Host[brokers][];
+            long placed = 0;
+            long attempts = 0;
+            long aborts = 0;
+            for (int b = 0; b < brokers; b++) {
+                BrokerRun run = runs.get(b);
+                assignments[b] = run.assignment;
+                placed += run.placed;
+                attempts += run.attempts;
+                aborts += run.aborts;
+            }
+            int vmCount = 0;
+            for (List<? extends Vm> vms : brokerVms) {
+                vmCount += vms.size();
+            }
+            return new MarketResult(brokers, vmCount, placed, attempts, aborts, book.getConflicts(), elapsed, assignments);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A market broker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BrokerRun auction(HostReservationBook book, List<? extends Vm> vms, long price) {
+        BrokerRun run = new BrokerRun(vms.size());
+        for (int i = 0; i < vms.size(); i++) {
+            Vm vm = vms.get(i);
+            long[] demand = HostReservationBook.demandOf(vm);
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                int winner = book.findWinner(vm, demand, price);
+                if (winner < 0) {
+                    break;
+                }
+                run.attempts++;
+                if (book.reserve(winner, demand, price)) {
+                    run.assignment[i] = book.getHost(winner);
+                    run.placed++;
+                    break;
+                }
+                run.aborts++;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Applies a market round to the hosts as one batch and charges the winners.
+     *
+     * @return false if the hosts could not take every winner; nothing is applied then and
+     *         every VM is declined
+     */
+    public boolean commit(MarketResult result, List<? extends List<? extends Vm>> brokerVms, AuctionVmAllocationPolicy policy) {
+        List<Vm> vms = new ArrayList<>();
+        List<Host> winners = new ArrayList<>();
+        for (int b = 0; b < brokerVms.size(); b++) {
+            vms.addAll(brokerVms.get(b));
+            for (Host host : result.getAssignment(b)) {
+                winners.add(host);
+            }
+        }
+        if (!policy.commitBatch(vms, winners.toArray(new Host[0]))) {
+            Log.printLine("Market: hosts could not allocate the round's winners; nothing was placed.");
+            return false;
+        }
+        for (Host host : winners) {
+            if (host != null) {
+                ((TokenBiddingHost) host).deductTokens(pricePerVm);
+            }
+        }
+        return true;
+    }
+
+    private static class BrokerRun {
+
+        final Host[] assignment;
+        long placed;
+        long attempts;
+        long aborts;
+
+        BrokerRun(int vms) {
+            this.assignment = new Host[vms];
+        }
+    }
+}
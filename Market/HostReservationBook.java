@@ -0,0 +1,180 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Free capacity and token balances of a TokenBiddingHost pool, shared by brokers that
+ * auction on different threads.
+ *
+ * Every resource of every host (index r * hosts + h) and every token balance is an
+ * AtomicLongArray slot in fixed point, thousandths of a unit. Brokers price hosts from
+ * plain reads of these slots, so a bid may be stale by the time it wins. A reservation
+ * therefore takes each resource and then the VM price with a compare-and-set loop that
+ * re-checks the amount still free; if any of them has run out the earlier ones are
+ * given back and the reservation fails. Each compare-and-set lost to another broker is
+ * counted as a conflict.
+ *
+ * The book is loaded from the hosts once and does not follow them afterwards; the
+ * reservations are applied to the hosts by the caller once the round is over.
+ */
+public class HostReservationBook {
+
+    static final double SCALE = 1000;
+
+    private static final int R = ResourceType.COUNT;
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+
+    private final List<? extends Host> hosts;
+    private final int n;
+    private final TokenBiddingHost[] bidders;
+    private final long[] capacity;
+    private final AtomicLongArray free;
+    private final AtomicLongArray balance;
+    private final double[] peMips;
+    private final int[] peCount;
+    private final LongAdder conflicts = new LongAdder();
+
+    public HostReservationBook(List<? extends Host> hosts) {
+        this.hosts = hosts;
+        this.n = hosts.size();
+        this.bidders = new TokenBiddingHost[n];
+        this.capacity = new long[R * n];
+        this.free = new AtomicLongArray(R * n);
+        this.balance = new AtomicLongArray(n);
+        this.peMips = new double[n];
+        this.peCount = new int[n];
+        for (int h = 0; h < n; h++) {
+            TokenBiddingHost host = (TokenBiddingHost) hosts.get(h);
+            bidders[h] = host;
+            for (int r = 0; r < R; r++) {
+                capacity[r * n + h] = (long) Math.floor(RESOURCES[r].capacity(host) * SCALE);
+                free.set(r * n + h, (long) Math.floor(RESOURCES[r].available(host) * SCALE));
+            }
+            balance.set(h, Math.round(host.getTokenBalance() * SCALE));
+            peMips[h] = host.getVmScheduler().getPeCapacity();
+            peCount[h] = host.getNumberOfPes();
+        }
+    }
+
+    /** The VM's demand per resource in the book's fixed point. */
+    public static long[] demandOf(Vm vm) {
+        long[] demand = new long[R];
+        for (int r = 0; r < R; r++) {
+            demand[r] = (long) Math.ceil(RESOURCES[r].demand(vm) * SCALE);
+        }
+        return demand;
+    }
+
+    public static long toFixed(double tokens) {
+        return Math.round(tokens * SCALE);
+    }
+
+    /**
+     * The host with the lowest bundle bid for the VM at the book's current state, or -1.
+     * Ties go to the higher token balance and then host order, as in the per-VM auction.
+     *
+     * @param price tokens in fixed point a host must hold to be allowed to win
+     */
+    public int findWinner(Vm vm, long[] demand, long price) {
+        int best = -1;
+        double bestBid = 0;
+        long bestBalance = 0;
+        for (int h = 0; h < n; h++) {
+            if (vm.getNumberOfPes() > peCount[h] || vm.getMips() > peMips[h]) {
+                continue;
+            }
+            long tokens = balance.get(h);
+            if (tokens < price) {
+                continue;
+            }
+            double bid = bundleBid(h, demand, tokens / SCALE);
+            if (bid == Double.MAX_VALUE) {
+                continue;
+            }
+            if (best < 0 || bid < bestBid || (bid == bestBid && tokens > bestBalance)) {
+                best = h;
+                bestBid = bid;
+                bestBalance = tokens;
+            }
+        }
+        return best;
+    }
+
+    // Sum of the host's per-resource prices, or Double.MAX_VALUE if the VM does not fit or the host abstains
+    private double bundleBid(int h, long[] demand, double tokens) {
+        double sum = 0;
+        for (int r = 0; r < R; r++) {
+            int i = r * n + h;
+            long available = free.get(i);
+            if (available < demand[r]) {
+                return Double.MAX_VALUE;
+            }
+            double utilization = capacity[i] <= 0 ? 1 : (double) (capacity[i] - available) / capacity[i];
+            double bid = bidders[h].bidAt(utilization, tokens);
+            if (bid == Double.MAX_VALUE) {
+                return Double.MAX_VALUE;
+            }
+            sum += bid;
+        }
+        return sum;
+    }
+
+    /**
+     * Takes the VM's resources and price from the host, all or nothing.
+     *
+     * @return false if the host no longer has enough of some resource or tokens
+     */
+    public boolean reserve(int h, long[] demand, long price) {
+        for (int r = 0; r < R; r++) {
+            if (!take(free, r * n + h, demand[r])) {
+                for (int k = 0; k < r; k++) {
+                    free.getAndAdd(k * n + h, demand[k]);
+                }
+                return false;
+            }
+        }
+        if (!take(balance, h, price)) {
+            release(h, demand, 0);
+            return false;
+        }
+        return true;
+    }
+
+    /** Gives back a reservation. */
+    public void release(int h, long[] demand, long price) {
+        for (int r = 0; r < R; r++) {
+            free.getAndAdd(r * n + h, demand[r]);
+        }
+        balance.getAndAdd(h, price);
+    }
+
+    private boolean take(AtomicLongArray slots, int i, long amount) {
+        while (true) {
+            long current = slots.get(i);
+            if (current < amount) {
+                return false;
+            }
+            if (slots.compareAndSet(i, current, current - amount)) {
+                return true;
+            }
+            conflicts.increment();
+        }
+    }
+
+    /** Compare-and-sets lost to another broker so far. */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public Host getHost(int h) {
+        return hosts.get(h);
+    }
+
+    public int size() {
+        return n;
+    }
+}
@@ -0,0 +1,106 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Locale;
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * Outcome of one ConcurrentAuctionMarket round: the winners of every broker and how
+ * much the brokers got in each other's way.
+ *
+ * An attempt is one reservation tried on an auction winner. It aborts when another
+ * broker took the capacity or tokens after the bid was read, and the VM is auctioned
+ * again. A conflict is one compare-and-set lost to another broker inside a reservation;
+ * it is retried on the spot and does not abort the attempt by itself.
+ */
+public class MarketResult {
+
+    public static final String CSV_HEADER = "brokers,vms,placed,attempts,aborts,conflicts,wallMs,vmsPerSecond,abortRate,conflictRate";
+
+    private final int brokers;
+    private final int vms;
+    private final long placed;
+    private final long attempts;
+    private final long aborts;
+    private final long conflicts;
+    private final long wallNanos;
+    private final Host[][] assignments;
+
+    MarketResult(int brokers, int vms, long placed, long attempts, long aborts, long conflicts, long wallNanos, Host[][] assignments) {
+        this.brokers = brokers;
+        this.vms = vms;
+        this.placed = placed;
+        this.attempts = attempts;
+        this.aborts = aborts;
+        this.conflicts = conflicts;
+        this.wallNanos = wallNanos;
+        this.assignments = assignments;
+    }
+
+    /** The same round with no VM placed, for when the hosts refused to apply it. */
+    MarketResult withNothingPlaced() {
+        Host[][] none = new Host[assignments.length][];
+        for (int b = 0; b < none.length; b++) {
+            none[b] = new Host[assignments[b].length];
+        }
+        return new MarketResult(brokers, vms, 0, attempts, aborts, conflicts, wallNanos, none);
+    }
+
+    /** assignment[i] is the host that won the i-th VM of the broker, or null. */
+    public Host[] getAssignment(int broker) {
+        return assignments[broker];
+    }
+
+    public int getBrokers() {
+        return brokers;
+    }
+
+    public int getVms() {
+        return vms;
+    }
+
+    public long getPlaced() {
+        return placed;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getAborts() {
+        return aborts;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public double getWallMillis() {
+        return wallNanos / 1e6;
+    }
+
+    /** VMs decided per second of wall-clock time, placed or not. */
+    public double getThroughput() {
+        return wallNanos == 0 ? 0 : vms / (wallNanos / 1e9);
+    }
+
+    /** Fraction of reservation attempts that aborted. */
+    public double getAbortRate() {
+        return attempts == 0 ? 0 : (double) aborts / attempts;
+    }
+
+    /** Lost compare-and-sets per reservation attempt. */
+    public double getConflictRate() {
+        return attempts == 0 ? 0 : (double) conflicts / attempts;
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%.3f,%.1f,%.5f,%.5f", brokers, vms, placed, attempts, aborts, conflicts,
+                getWallMillis(), getThroughput(), getAbortRate(), getConflictRate());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d brokers: %d of %d VMs placed in %.2f ms (%.0f VMs/s), %d aborts (%.2f%%), %d conflicts (%.3f per attempt)",
+                brokers, placed, vms, getWallMillis(), getThroughput(), aborts, 100 * getAbortRate(), conflicts, getConflictRate());
+    }
+}
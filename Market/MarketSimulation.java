@@ -0,0 +1,117 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Runs the concurrent auction market with a growing number of brokers on the same fleet
+ * and reports throughput and abort and conflict rates for each broker count, followed
+ * by the same figures as CSV.
+ *
+ * <pre>
+ * java MarketSimulation [broker counts, e.g. 1,2,4,8] [VMs per broker] [spec.properties|uniform|mixed]
+ * </pre>
+ */
+public class MarketSimulation {
+
+    private static final double HOST_POWER_IDLE = 100;
+    private static final double HOST_POWER_FULL = 200;
+
+    public static void main(String[] args) {
+        Log.printLine("Starting MarketSimulation...");
+
+        try {
+            int[] brokerCounts = args.length > 0 ? parseCounts(args[0]) : defaultCounts();
+            int vmsPerBroker = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+            ScenarioSpec spec = args.length > 2 ? ScenarioRunner.loadSpec(args[2]) : ScenarioSpec.uniformFleet().withHostCount(1000);
+
+            List<MarketResult> results = new ArrayList<>();
+            for (int brokers : brokerCounts) {
+                MarketResult result = run(spec, brokers, vmsPerBroker);
+                Log.printLine(result.toString());
+                results.add(result);
+            }
+            Log.printLine(MarketResult.CSV_HEADER);
+            for (MarketResult result : results) {
+                Log.printLine(result.toCsv());
+            }
+            Log.printLine("MarketSimulation finished!");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static MarketResult run(ScenarioSpec spec, int brokers, int vmsPerBroker) throws Exception {
+        CloudSim.init(brokers, Calendar.getInstance(), false);
+        List<Host> hostList = new ScenarioBuilder(spec).createHosts(ScenarioBuilder.HostKind.TOKEN_BIDDING);
+        EnergyMeter energyMeter = new EnergyMeter(hostList, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+        AuctionVmAllocationPolicy policy = new AuctionVmAllocationPolicy(hostList);
+        ScenarioBuilder.createDatacenter("Datacenter_0", hostList, policy, energyMeter);
+
+        // Every broker draws its own VMs from the spec with a seed of its own
+        List<DatacenterBroker> brokerList = new ArrayList<>(brokers);
+        List<List<Vm>> brokerVms = new ArrayList<>(brokers);
+        for (int b = 0; b < brokers; b++) {
+            DatacenterBroker broker = new DatacenterBroker("MarketBroker_" + b);
+            ScenarioBuilder builder = new ScenarioBuilder(spec.withSeed(spec.getSeed() + b)
+                    .withVmCount(vmsPerBroker).withCloudletCount(vmsPerBroker));
+            List<Vm> vms = builder.createVms(broker.getId());
+            broker.submitGuestList(vms);
+            broker.submitCloudletList(builder.createCloudlets(broker.getId()));
+            brokerList.add(broker);
+            brokerVms.add(vms);
+        }
+
+        ConcurrentAuctionMarket market = new ConcurrentAuctionMarket(hostList);
+        MarketResult result = market.run(brokerVms);
+        if (!market.commit(result, brokerVms, policy)) {
+            // Every VM was declined, so none of them falls back to first-fit
+            result = result.withNothingPlaced();
+        }
+
+        double lastClock = CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+        energyMeter.finish(lastClock);
+
+        int completed = 0;
+        for (DatacenterBroker broker : brokerList) {
+            for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+                if (cloudlet.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {
+                    completed++;
+                }
+            }
+        }
+        Log.printLine(String.format("%d brokers: %d cloudlets completed, energy %.4f kWh", brokers, completed, energyMeter.getTotalEnergyKWh()));
+        return result;
+    }
+
+    private static int[] parseCounts(String list) {
+        String[] parts = list.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+
+    // 1, 2, 4, ... up to twice the available cores
+    private static int[] defaultCounts() {
+        int limit = 2 * Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int b = 1; b <= limit; b *= 2) {
+            counts.add(b);
+        }
+        int[] result = new int[counts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+}
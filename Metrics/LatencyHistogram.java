@@ -0,0 +1,89 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log-linear histogram of non-negative long values, in the style of HdrHistogram.
+ *
+ * Values below 256 get a bucket each. Above that every power-of-two range is split into
+ * 128 equal buckets, so a recorded value is known to within 1/128 (under 0.8%) of
+ * itself across the whole long range, in a fixed array of about 7,300 counts. Recording
+ * is a shift, an index computation and one atomic increment, and may happen from any
+ * thread. Percentiles report the highest value of the bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 8;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+    private static final int MAX_BUCKET = 62 - (SUB_BITS - 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(MAX_BUCKET * HALF + SUB_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    static int indexOf(long value) {
+        int bucket = 63 - Long.numberOfLeadingZeros(value | (SUB_COUNT - 1)) - (SUB_BITS - 1);
+        return bucket * HALF + (int) (value >>> bucket);
+    }
+
+    /** Highest value that falls into the same bucket as the given index. */
+    static long highestValueAt(int index) {
+        int bucket = index < SUB_COUNT ? 0 : index / HALF - 1;
+        long sub = index - (long) bucket * HALF;
+        return ((sub + 1) << bucket) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * The value at or below which the given percentage of recorded values fall, or 0 if
+     * nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get();
+    }
+}
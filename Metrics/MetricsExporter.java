@@ -0,0 +1,109 @@
+package org.cloudbus.cloudsim.examples;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a MetricsRegistry while a simulation runs: rewritten to a file at a fixed
+ * period, served over HTTP at /metrics for a Prometheus scraper, or both. Both run on
+ * daemon threads. Closing writes the file one last time and stops the server.
+ *
+ * fromSystemProperties reads -Dmetrics.file, -Dmetrics.period (milliseconds, default
+ * 5000) and -Dmetrics.port, so any simulation can be watched without code changes.
+ */
+public class MetricsExporter implements Closeable {
+
+    public static final long DEFAULT_PERIOD_MILLIS = 5000;
+
+    private final MetricsRegistry registry;
+    private ScheduledExecutorService scheduler;
+    private Path file;
+    private HttpServer server;
+
+    public MetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static MetricsExporter fromSystemProperties(MetricsRegistry registry) throws IOException {
+        MetricsExporter exporter = new MetricsExporter(registry);
+        String file = System.getProperty("metrics.file");
+        if (file != null) {
+            exporter.exportPeriodically(Paths.get(file), Long.getLong("metrics.period", DEFAULT_PERIOD_MILLIS));
+        }
+        Integer port = Integer.getInteger("metrics.port");
+        if (port != null) {
+            exporter.serve(port);
+        }
+        return exporter;
+    }
+
+    /** Replaces the file with the current metrics; readers never see a partial file. */
+    public void writeTo(Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, registry.toPrometheusText().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized void exportPeriodically(Path target, long periodMillis) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Already exporting to " + file);
+        }
+        file = target;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Writing metrics to " + target + " failed", e);
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Serves the metrics at http://host:port/metrics. */
+    public synchronized void serve(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = registry.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            writeTo(file);
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
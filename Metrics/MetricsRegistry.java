@@ -0,0 +1,88 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Named counters, gauges and histograms, rendered in the Prometheus text format.
+ *
+ * Counters are LongAdders or DoubleAdders, so updating them from many threads does not
+ * contend. Histograms are rendered as summaries with a fixed set of quantiles. Metrics
+ * are registered up front; rendering may run on another thread while they are updated.
+ */
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+    public synchronized LongAdder counter(String name, String help) {
+        LongAdder adder = new LongAdder();
+        register(name, help, "counter", out -> sample(out, name, "", adder.sum()));
+        return adder;
+    }
+
+    public synchronized DoubleAdder doubleCounter(String name, String help) {
+        DoubleAdder adder = new DoubleAdder();
+        register(name, help, "counter", out -> sample(out, name, "", adder.sum()));
+        return adder;
+    }
+
+    public synchronized void gauge(String name, String help, DoubleSupplier value) {
+        register(name, help, "gauge", out -> sample(out, name, "", value.getAsDouble()));
+    }
+
+    /**
+     * A histogram rendered in seconds, for values recorded in nanoseconds.
+     */
+    public synchronized LatencyHistogram latency(String name, String help) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        register(name, help, "summary", out -> {
+            for (double q : QUANTILES) {
+                sample(out, name, "{quantile=\"" + q + "\"}", histogram.getValueAtPercentile(q * 100) / 1e9);
+            }
+            sample(out, name + "_sum", "", histogram.getSum() / 1e9);
+            sample(out, name + "_count", "", histogram.getCount());
+        });
+        return histogram;
+    }
+
+    private void register(String name, String help, String type, Metric metric) {
+        if (metrics.containsKey(name)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered");
+        }
+        metrics.put(name, out -> {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            metric.write(out);
+        });
+    }
+
+    /** All metrics in the Prometheus text exposition format. */
+    public synchronized String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        for (Metric metric : metrics.values()) {
+            metric.write(out);
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.9g", value));
+        }
+        out.append('\n');
+    }
+
+    private interface Metric {
+
+        void write(StringBuilder out);
+    }
+}
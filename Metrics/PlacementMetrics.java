@@ -0,0 +1,139 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * The placement metrics brokers and allocation policies report into.
+ *
+ * A round is one run of an auction: one VM for the per-VM auctions, a whole batch for
+ * batch clearing. An auction outcome is counted per VM. Placement requests are the VMs
+ * an allocation policy was asked to place. Per-second rates are averaged over the wall
+ * time since the metrics were created.
+ */
+public class PlacementMetrics {
+
+    private final MetricsRegistry registry;
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder rounds;
+    private final LatencyHistogram roundLatency;
+    private final LongAdder bids;
+    private final LongAdder auctions;
+    private final LongAdder failedAuctions;
+    private final LongAdder tieBreaks;
+    private final DoubleAdder tokensPaid;
+    private final LongAdder requests;
+    private final LongAdder placed;
+    private final LatencyHistogram placementLatency;
+
+    public PlacementMetrics() {
+        this(new MetricsRegistry());
+    }
+
+    public PlacementMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        rounds = registry.counter("placement_auction_rounds_total", "Auction rounds run");
+        roundLatency = registry.latency("placement_auction_round_seconds", "Wall time of one auction round");
+        bids = registry.counter("placement_bids_total", "Host bids evaluated");
+        auctions = registry.counter("placement_auctions_total", "VMs auctioned");
+        failedAuctions = registry.counter("placement_auctions_failed_total", "VMs no host won");
+        tieBreaks = registry.counter("placement_tie_breaks_total", "Auctions decided by the tie-break");
+        tokensPaid = registry.doubleCounter("placement_tokens_paid_total", "Tokens paid by winning hosts");
+        requests = registry.counter("placement_requests_total", "VMs an allocation policy was asked to place");
+        placed = registry.counter("placement_requests_placed_total", "VMs an allocation policy placed");
+        placementLatency = registry.latency("placement_seconds", "Wall time an allocation policy spent on one VM");
+        registry.gauge("placement_auction_success_ratio", "Share of auctioned VMs some host won", this::getAuctionSuccessRatio);
+        registry.gauge("placement_success_ratio", "Share of placement requests that were placed", this::getPlacementSuccessRatio);
+        registry.gauge("placement_bids_per_second", "Bids evaluated per second of wall time", this::getBidsPerSecond);
+        registry.gauge("placement_rounds_per_second", "Auction rounds per second of wall time", this::getRoundsPerSecond);
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /** One auction round that evaluated the given number of bids. */
+    public void recordRound(long nanos, long bidCount) {
+        rounds.increment();
+        roundLatency.record(nanos);
+        bids.add(bidCount);
+    }
+
+    /** The result of auctioning one VM. */
+    public void recordOutcome(boolean won, boolean wonOnTieBreak) {
+        auctions.increment();
+        if (!won) {
+            failedAuctions.increment();
+        }
+        if (wonOnTieBreak) {
+            tieBreaks.increment();
+        }
+    }
+
+    /** A per-VM auction: one round and its outcome. */
+    public void recordAuction(AuctionOutcome outcome, long nanos) {
+        int bidCount = 0;
+        for (double bid : outcome.getBids()) {
+            if (!Double.isNaN(bid)) {
+                bidCount++;
+            }
+        }
+        recordRound(nanos, bidCount);
+        recordOutcome(outcome.getWinner() != null, outcome.isWonOnTieBreak());
+    }
+
+    public void recordTokens(double tokens) {
+        tokensPaid.add(tokens);
+    }
+
+    /** An allocation policy's attempt to place one VM. */
+    public void recordPlacement(long nanos, boolean success) {
+        requests.increment();
+        placementLatency.record(nanos);
+        if (success) {
+            placed.increment();
+        }
+    }
+
+    public LatencyHistogram getRoundLatency() {
+        return roundLatency;
+    }
+
+    public LatencyHistogram getPlacementLatency() {
+        return placementLatency;
+    }
+
+    public double getAuctionSuccessRatio() {
+        long n = auctions.sum();
+        return n == 0 ? 0 : 1 - (double) failedAuctions.sum() / n;
+    }
+
+    public double getPlacementSuccessRatio() {
+        long n = requests.sum();
+        return n == 0 ? 0 : (double) placed.sum() / n;
+    }
+
+    public double getBidsPerSecond() {
+        return bids.sum() / elapsedSeconds();
+    }
+
+    public double getRoundsPerSecond() {
+        return rounds.sum() / elapsedSeconds();
+    }
+
+    private double elapsedSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    public void printSummary() {
+        Log.printLine(String.format("Auctions: %d rounds, %d bids, %d VMs (%d failed, %d tie-breaks), %.2f tokens paid",
+                rounds.sum(), bids.sum(), auctions.sum(), failedAuctions.sum(), tieBreaks.sum(), tokensPaid.sum()));
+        Log.printLine(String.format("Auction round latency: p50 %.1f us, p99 %.1f us, max %.1f us",
+                roundLatency.getValueAtPercentile(50) / 1e3, roundLatency.getValueAtPercentile(99) / 1e3, roundLatency.getMax() / 1e3));
+        Log.printLine(String.format("Placement requests: %d, %.1f%% placed, p50 %.1f us, p99 %.1f us",
+                requests.sum(), 100 * getPlacementSuccessRatio(), placementLatency.getValueAtPercentile(50) / 1e3,
+                placementLatency.getValueAtPercentile(99) / 1e3));
+    }
+}
@@ -0,0 +1,13 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
+/**
+ * Events an OnlineAuctionBroker sends to itself.
+ */
+public enum AuctionTags implements CloudSimTags {
+    /** The batching window is over; auction every VM that arrived during it. */
+    CLEAR_AUCTION_WINDOW,
+    /** Time to write the checkpoint the broker was asked for. */
+    CHECKPOINT
+}
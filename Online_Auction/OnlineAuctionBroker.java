@@ -0,0 +1,438 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * Auctions VM requests as they arrive during the simulation.
+ *
+ * Arrivals come from a WorkloadSource through StreamingBroker. With a batch window of
+ * 0 every arrival is auctioned in the event that delivers it. With a positive window the
+ * first arrival opens a window, later arrivals join it, and all of them are cleared
+ * together when it closes: in one BatchAuctionClearing round on TokenBiddingHosts, or
+ * one AuctionEngine auction per VM otherwise, rerun without the winner if it cannot pay
+ * or take the VM. Token hosts pay pricePerVm for every VM
+ * they win, as in the upfront token auction. The charge is handed back if the datacenter
+ * then fails to create the VM.
+ *
+ * Besides the streaming counters the broker measures the wall-clock time spent deciding
+ * each VM and the simulated time VMs wait in a window, which give the placement latency
+ * and the sustained request rate the auction can handle.
+ *
+ * The broker can write an AuctionCheckpoint at a chosen simulated time and a new broker
+ * can continue from one: with the same scenario and a ResumableSource the restored run
+ * makes the same decisions as the original did after the checkpoint, with its clock
+ * shifted back by the checkpoint's time. Counters cover only the run they were taken in.
+ */
+public class OnlineAuctionBroker extends StreamingBroker {
+
+    private final List<? extends Host> hosts;
+    private final HostCapacityIndex capacityIndex;
+    private final boolean tokenHosts;
+    private AuctionEngine auctionEngine = new SerialAuctionEngine();
+    private TieBreak tieBreak;
+    private double batchWindow;
+    private double pricePerVm = BatchAuctionClearing.DEFAULT_PRICE_PER_VM;
+    private PricingRule pricingRule;
+    private TokenEconomy economy;
+    private AuctionVmAllocationPolicy allocationPolicy;
+    private PlacementMetrics metrics;
+
+    private final List<Vm> window = new ArrayList<>();
+    private final Map<Integer, Charge> awaitingCreate = new HashMap<>(); // VM id -> what its winner paid
+    private double windowClose = Double.NaN;
+
+    private double checkpointTime = -1;
+    private Path checkpointFile;
+    private AuctionCheckpoint restored;
+
+    private long decided;
+    private long placed;
+    private long rounds;
+    private long totalDecisionNanos;
+    private long maxRoundNanos;
+    private double totalWindowDelay;
+
+    public OnlineAuctionBroker(String name, WorkloadSource source, int datacenterId, List<? extends Host> hosts) throws Exception {
+        super(name, source, datacenterId);
+        this.hosts = hosts;
+        this.capacityIndex = new HostCapacityIndex(hosts);
+        this.tokenHosts = !hosts.isEmpty() && hosts.get(0) instanceof TokenBiddingHost;
+        this.tieBreak = tokenHosts ? TokenBiddingHost.HIGHER_TOKEN_BALANCE : TieBreak.FIRST_IN_LIST;
+    }
+
+    public void setAuctionEngine(AuctionEngine auctionEngine) {
+        this.auctionEngine = auctionEngine;
+    }
+
+    public void setTieBreak(TieBreak tieBreak) {
+        this.tieBreak = tieBreak;
+    }
+
+    /**
+     * @param seconds simulated time arrivals are collected before they are auctioned together; 0 auctions each on arrival
+     */
+    public void setBatchWindow(double seconds) {
+        this.batchWindow = seconds;
+    }
+
+    /** Tokens a TokenBiddingHost pays for each VM it wins. */
+    public void setPricePerVm(double pricePerVm) {
+        this.pricePerVm = pricePerVm;
+    }
+
+    /**
+     * Holds what token hosts pay in the economy's escrow until its next settlement
+     * instead of deducting it from their balance directly.
+     */
+    public void setTokenEconomy(TokenEconomy economy) {
+        this.economy = economy;
+    }
+
+    /**
+     * What the winner of a per-VM auction pays instead of the flat price per VM. Batch
+     * clearing rounds keep the flat price.
+     */
+    public void setPricingRule(PricingRule pricingRule) {
+        this.pricingRule = pricingRule;
+    }
+
+    /**
+     * Reserves the winners of each round on their hosts through the datacenter's policy
+     * before their create requests are sent, so the datacenter does not place them again
+     * and the rest of the round sees the capacity they took.
+     */
+    public void setAllocationPolicy(AuctionVmAllocationPolicy allocationPolicy) {
+        this.allocationPolicy = allocationPolicy;
+    }
+
+    public void setMetrics(PlacementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Writes a checkpoint to the file when the simulation reaches the given time. */
+    public void setCheckpoint(double time, Path file) {
+        this.checkpointTime = time;
+        this.checkpointFile = file;
+    }
+
+    /**
+     * Continues from a checkpoint instead of starting empty. Must be called before the
+     * simulation starts, on a broker built over hosts and a source made from the same
+     * scenario as the one the checkpoint was taken from.
+     */
+    public void restore(AuctionCheckpoint checkpoint) throws IOException {
+        if (checkpoint.getTokenBalances().length != hosts.size()) {
+            throw new IllegalArgumentException("The checkpoint has " + checkpoint.getTokenBalances().length
+                    + " hosts, the broker " + hosts.size());
+        }
+        resumableSource().restoreState(new DataInputStream(new ByteArrayInputStream(checkpoint.getSourceState())));
+        for (int h = 0; h < hosts.size(); h++) {
+            double balance = checkpoint.getTokenBalances()[h];
+            if (!Double.isNaN(balance)) {
+                ((TokenBiddingHost) hosts.get(h)).setTokenBalance(balance);
+            }
+        }
+        resumeStream(checkpoint.getTraceOrigin() + checkpoint.getClock(), checkpoint.getNextVmId(), checkpoint.getPendingItem());
+        restored = checkpoint;
+    }
+
+    /**
+     * Captures the broker's state now. Running VMs are assumed to have progressed at
+     * their full MIPS since their cloudlet started, which holds because hosts are never
+     * oversubscribed.
+     */
+    public AuctionCheckpoint checkpoint() throws IOException {
+        double now = CloudSim.clock();
+        Map<Host, Integer> hostIndex = new IdentityHashMap<>();
+        double[] balances = new double[hosts.size()];
+        for (int h = 0; h < hosts.size(); h++) {
+            Host host = hosts.get(h);
+            hostIndex.put(host, h);
+            balances[h] = host instanceof TokenBiddingHost ? ((TokenBiddingHost) host).getTokenBalance() : Double.NaN;
+        }
+        List<AuctionCheckpoint.VmState> vms = new ArrayList<>();
+        for (Vm vm : getInFlightVms()) {
+            Integer h = vm.getHost() == null ? null : hostIndex.get(vm.getHost());
+            Cloudlet cloudlet = getCloudlet(vm);
+            long remaining = cloudlet.getCloudletLength();
+            if (cloudlet.getStatus() == Cloudlet.CloudletStatus.INEXEC) {
+                remaining = Math.max(1, remaining - Math.round((now - cloudlet.getExecStartTime()) * vm.getMips()));
+            }
+            vms.add(new AuctionCheckpoint.VmState(vm.getId(), h == null ? -1 : h, getArrivalTime(vm), remaining,
+                    getWorkloadItem(vm)));
+        }
+        ByteArrayOutputStream sourceState = new ByteArrayOutputStream();
+        resumableSource().saveState(new DataOutputStream(sourceState));
+        return new AuctionCheckpoint(now, getTraceOrigin(), getNextVmId(), window.isEmpty() ? Double.NaN : windowClose,
+                AuctionLog.getTraceRecords(), balances, sourceState.toByteArray(), getPendingItem(), vms);
+    }
+
+    private ResumableSource resumableSource() {
+        if (!(getSource() instanceof ResumableSource)) {
+            throw new IllegalStateException("The workload source cannot be checkpointed");
+        }
+        return (ResumableSource) getSource();
+    }
+
+    @Override
+    public void startEntity() {
+        super.startEntity();
+        if (restored != null) {
+            resumeVms(restored);
+            restored = null;
+        }
+        if (checkpointTime >= 0) {
+            schedule(getId(), checkpointTime, AuctionTags.CHECKPOINT);
+        }
+    }
+
+    /**
+     * Recreates the checkpoint's VMs: VMs that held a host get it back without an auction
+     * and continue with the work they had left; VMs that were waiting in the batch window
+     * wait for the rest of that window.
+     */
+    private void resumeVms(AuctionCheckpoint checkpoint) {
+        double offset = checkpoint.getClock();
+        List<Vm> resident = new ArrayList<>();
+        for (AuctionCheckpoint.VmState state : checkpoint.getVms()) {
+            WorkloadItem item = state.getItem();
+            double arrival = state.getArrivalTime() - offset;
+            Vm vm = newVm(state.getId(), item);
+            adopt(vm, newCloudlet(state.getId(), item, state.getRemainingLength(), arrival), item, arrival);
+            if (state.getHostIndex() < 0) {
+                window.add(vm);
+                continue;
+            }
+            Host host = hosts.get(state.getHostIndex());
+            if (allocationPolicy == null) {
+                vm.setHost(host);
+            } else if (!allocationPolicy.reserve(vm, host)) {
+                throw new IllegalStateException("VM #" + vm.getId() + " no longer fits on host #" + host.getId());
+            }
+            resident.add(vm);
+        }
+        if (allocationPolicy != null) {
+            allocationPolicy.commit();
+        }
+        for (Vm vm : resident) {
+            createVm(vm);
+        }
+        if (!window.isEmpty()) {
+            windowClose = checkpoint.getWindowClose() - offset;
+            schedule(getId(), Math.max(0, windowClose), AuctionTags.CLEAR_AUCTION_WINDOW);
+        }
+        Log.printLine(String.format("%.2f: %s: Resumed %d VMs from the checkpoint taken at %.2f",
+                CloudSim.clock(), getName(), checkpoint.getVms().size(), offset));
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        if (ev.getTag() == AuctionTags.CLEAR_AUCTION_WINDOW) {
+            List<Vm> batch = new ArrayList<>(window);
+            window.clear();
+            clear(batch);
+        } else if (ev.getTag() == AuctionTags.CHECKPOINT) {
+            try {
+                AuctionCheckpoint checkpoint = checkpoint();
+                checkpoint.write(checkpointFile);
+                Log.printLine(String.format("%.2f: %s: Checkpoint of %d VMs written to %s",
+                        CloudSim.clock(), getName(), checkpoint.getVms().size(), checkpointFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Writing the checkpoint failed", e);
+            }
+        } else {
+            super.processEvent(ev);
+        }
+    }
+
+    @Override
+    protected void placeVm(Vm vm) {
+        if (batchWindow <= 0) {
+            List<Vm> single = new ArrayList<>(1);
+            single.add(vm);
+            clear(single);
+            return;
+        }
+        if (window.isEmpty()) {
+            windowClose = CloudSim.clock() + batchWindow;
+            schedule(getId(), batchWindow, AuctionTags.CLEAR_AUCTION_WINDOW);
+        }
+        window.add(vm);
+    }
+
+    private void clear(List<Vm> batch) {
+        double now = CloudSim.clock();
+        long start = System.nanoTime();
+        Host[] winners = new Host[batch.size()];
+        double[] prices = new double[batch.size()];
+        double[] charges = new double[batch.size()];
+        Arrays.fill(charges, pricePerVm);
+        if (tokenHosts && batch.size() > 1) {
+            BatchAuctionClearing clearing = new BatchAuctionClearing(pricePerVm);
+            BatchAuctionClearing.Result result = clearing.clear(batch, hosts);
+            winners = result.getAssignment();
+            prices = result.getBundlePrices();
+            if (metrics != null) {
+                metrics.recordRound(System.nanoTime() - start, (long) batch.size() * hosts.size());
+                for (Host winner : winners) {
+                    metrics.recordOutcome(winner != null, false);
+                }
+            }
+            if (allocationPolicy != null && !allocationPolicy.commitBatch(batch, winners)) {
+                winners = new Host[batch.size()];
+            }
+        } else {
+            PricingRule rule = pricingRule != null ? pricingRule : PricingRule.fixed(pricePerVm);
+            for (int i = 0; i < batch.size(); i++) {
+                // Only hosts with the free capacity for the VM take part; a winner that
+                // cannot pay or take the VM drops out and the rest bid again
+                List<Host> candidates = capacityIndex.candidates(batch.get(i));
+                Host winner;
+                while (true) {
+                    long auctionStart = System.nanoTime();
+                    AuctionOutcome outcome = auctionEngine.runAuction(batch.get(i), candidates, tieBreak);
+                    if (metrics != null) {
+                        metrics.recordAuction(outcome, System.nanoTime() - auctionStart);
+                    }
+                    winner = rule.accepts(outcome.getWinningBid()) ? outcome.getWinner() : null;
+                    charges[i] = rule.price(outcome.getWinningBid(), outcome.getRunnerUpBid());
+                    prices[i] = outcome.getWinningBid();
+                    if (winner == null) {
+                        break;
+                    }
+                    boolean canPay = !(winner instanceof TokenBiddingHost) || ((TokenBiddingHost) winner).getTokenBalance() >= charges[i];
+                    if (canPay && (allocationPolicy == null || allocationPolicy.reserve(batch.get(i), winner))) {
+                        break;
+                    }
+                    candidates.remove(winner);
+                }
+                winners[i] = winner;
+            }
+            if (allocationPolicy != null) {
+                allocationPolicy.commit();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        rounds++;
+        totalDecisionNanos += elapsed;
+        maxRoundNanos = Math.max(maxRoundNanos, elapsed);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Vm vm = batch.get(i);
+            decided++;
+            totalWindowDelay += now - getArrivalTime(vm);
+            Host winner = winners[i];
+            if (winner == null) {
+                AuctionLog.recordNoWinner(now, vm.getId());
+                AuctionLog.info(() -> String.format("%.2f: %s: No host won the auction for VM #%d", now, getName(), vm.getId()));
+                rejectVm(vm);
+                continue;
+            }
+            AuctionLog.recordWin(now, vm.getId(), winner.getId(), prices[i], false);
+            if (winner instanceof TokenBiddingHost) {
+                AuctionLog.recordTokens(now, vm.getId(), winner.getId(), charges[i]);
+                if (economy != null) {
+                    economy.escrow((TokenBiddingHost) winner, charges[i]);
+                } else {
+                    ((TokenBiddingHost) winner).deductTokens(charges[i]);
+                }
+                if (metrics != null) {
+                    metrics.recordTokens(charges[i]);
+                }
+            }
+            awaitingCreate.put(vm.getId(), new Charge(winner instanceof TokenBiddingHost ? (TokenBiddingHost) winner : null, charges[i]));
+            if (allocationPolicy == null) {
+                vm.setHost(winner);
+            }
+            placed++;
+            createVm(vm);
+        }
+    }
+
+    @Override
+    protected void vmCreated(Vm vm, boolean created) {
+        // VMs restored from a checkpoint were not auctioned in this run
+        Charge charge = awaitingCreate.remove(vm.getId());
+        if (created || charge == null) {
+            return;
+        }
+        placed--;
+        if (charge.host == null) {
+            return;
+        }
+        if (economy != null) {
+            economy.release(charge.host, charge.amount);
+        } else {
+            charge.host.deductTokens(-charge.amount);
+        }
+        if (metrics != null) {
+            metrics.recordTokens(-charge.amount);
+        }
+        AuctionLog.info(() -> String.format("%.2f: %s: Refunded %.2f tokens to Host #%d for VM #%d", CloudSim.clock(), getName(),
+                charge.amount, charge.host.getId(), vm.getId()));
+    }
+
+    /** VMs that went through an auction. */
+    public long getDecided() {
+        return decided;
+    }
+
+    /** VMs that found a winning host the datacenter then created them on. */
+    public long getPlaced() {
+        return placed;
+    }
+
+    /** Auction rounds run: one per arrival, or one per window when batching. */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /** Mean wall-clock time spent deciding one VM, in microseconds. */
+    public double getMeanDecisionMicros() {
+        return decided == 0 ? 0 : totalDecisionNanos / 1e3 / decided;
+    }
+
+    /** Longest wall-clock time of one auction round, in microseconds. */
+    public double getMaxRoundMicros() {
+        return maxRoundNanos / 1e3;
+    }
+
+    /** VMs decided per second of wall-clock auction time: the sustainable arrival rate. */
+    public double getSustainedRequestsPerSecond() {
+        return totalDecisionNanos == 0 ? 0 : decided / (totalDecisionNanos / 1e9);
+    }
+
+    /** Mean simulated time a VM waited for its window to close. */
+    public double getMeanWindowDelay() {
+        return decided == 0 ? 0 : totalWindowDelay / decided;
+    }
+
+    private static class Charge {
+
+        final TokenBiddingHost host; // null if the winner holds no tokens
+        final double amount;
+
+        Charge(TokenBiddingHost host, double amount) {
+            this.host = host;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.nio.file.Paths;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Runs the auctions online against Poisson VM arrivals and reports placement latency
+ * and the sustained request rate.
+ *
+ * <pre>
+ * java OnlineAuctionSimulation [token|basic] [arrivals per second] [arrivals] [batch window s] [spec.properties|uniform|mixed]
+ * </pre>
+ *
+ * -Dcheckpoint.at=seconds -Dcheckpoint.save=file writes a checkpoint at that simulated
+ * time; -Dcheckpoint.load=file continues a run with the same arguments from one, skipping
+ * its warm-up. Record both runs with -Dauction.trace and compare them with ReplayVerifier.
+ *
+ * Token hosts take part in a TokenEconomy that pays them for hosting VMs and settles every
+ * -Deconomy.epoch seconds; -Deconomy=off leaves balances to drain as before, and
+ * -Deconomy.adaptive=true charges the economy's clearing price instead of the pricing rule.
+ * The balances are committed to a TokenStateTree that takes each settled epoch as one
+ * batch, and every host's balance is proven against its root at the end.
+ */
+public class OnlineAuctionSimulation {
+
+    private static final double HOST_POWER_IDLE = 100;
+    private static final double HOST_POWER_FULL = 200;
+    private static final double MEAN_VM_LIFETIME = 600;
+
+    public static void main(String[] args) {
+        Log.printLine("Starting OnlineAuctionSimulation...");
+
+        try {
+            boolean token = args.length < 1 || "token".equals(args[0]);
+            double rate = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+            long arrivals = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+            double window = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+            ScenarioSpec spec = args.length > 4 ? ScenarioRunner.loadSpec(args[4]) : ScenarioSpec.uniformFleet().withHostCount(100);
+
+            CloudSim.init(1, Calendar.getInstance(), false);
+            AuctionLog.startTrace();
+            List<Host> hostList = new ScenarioBuilder(spec).createHosts(
+                    token ? ScenarioBuilder.HostKind.TOKEN_BIDDING : ScenarioBuilder.HostKind.BASIC_BIDDING);
+            EnergyMeter energyMeter = new EnergyMeter(hostList, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+            AuctionVmAllocationPolicy policy = new AuctionVmAllocationPolicy(hostList);
+            MeteredDatacenter datacenter = ScenarioBuilder.createDatacenter("Datacenter_0", hostList, policy, energyMeter);
+
+            OnlineAuctionBroker broker = new OnlineAuctionBroker("OnlineAuctionBroker",
+                    new PoissonArrivalSource(spec, rate, arrivals, MEAN_VM_LIFETIME), datacenter.getId(), hostList);
+            broker.setBatchWindow(window);
+            broker.setPricingRule(PricingRule.fromSystemProperties());
+            TokenEconomy economy = null;
+            TokenStateTree stateTree = null;
+            if (token && !"off".equals(System.getProperty("economy"))) {
+                economy = new TokenEconomy("TokenEconomy", hostList);
+                economy.setEpoch(Double.parseDouble(System.getProperty("economy.epoch", String.valueOf(TokenEconomy.DEFAULT_EPOCH))));
+                if (Boolean.getBoolean("economy.adaptive")) {
+                    economy.setAdaptivePricing(true, PricingRule.DEFAULT_FIXED_PRICE);
+                    broker.setPricingRule(economy.pricingRule());
+                }
+                broker.setTokenEconomy(economy);
+                stateTree = new TokenStateTree(hostList.size());
+                stateTree.track(hostList);
+            }
+            broker.setAllocationPolicy(policy);
+            PlacementMetrics metrics = new PlacementMetrics();
+            MetricsExporter exporter = MetricsExporter.fromSystemProperties(metrics.getRegistry());
+            broker.setMetrics(metrics);
+            policy.setMetrics(metrics);
+            String save = System.getProperty("checkpoint.save");
+            if (save != null) {
+                broker.setCheckpoint(Double.parseDouble(System.getProperty("checkpoint.at", "0")), Paths.get(save));
+            }
+            String load = System.getProperty("checkpoint.load");
+            if (load != null) {
+                broker.restore(AuctionCheckpoint.read(Paths.get(load)));
+            }
+
+            double lastClock = CloudSim.startSimulation();
+            CloudSim.stopSimulation();
+
+            Log.printLine(String.format("%d arrivals at %.2f/s, window %.2f s: %d placed, %d rejected in %d rounds",
+                    broker.getSubmitted(), rate, window, broker.getPlaced(), broker.getVmsFailed(), broker.getRounds()));
+            Log.printLine(String.format("Decision latency: mean %.1f us per VM, max %.1f us per round; sustained %.0f requests/s",
+                    broker.getMeanDecisionMicros(), broker.getMaxRoundMicros(), broker.getSustainedRequestsPerSecond()));
+            Log.printLine(String.format("Mean window delay: %.3f s, mean response time: %.2f s, cloudlets completed: %d",
+                    broker.getMeanWindowDelay(), broker.getMeanResponseTime(), broker.getCompleted()));
+            energyMeter.finish(lastClock);
+            energyMeter.printReport();
+            if (economy != null) {
+                economy.printReport();
+                int proven = 0;
+                for (Host host : hostList) {
+                    BalanceProof proof = stateTree.prove(host.getId());
+                    if (proof.getBalance() == ((TokenBiddingHost) host).getTokenBalance() && proof.verify(stateTree.getRoot())) {
+                        proven++;
+                    }
+                }
+                Log.printLine(String.format("State tree: %d of %d host balances proven against the root", proven, hostList.size()));
+            }
+            metrics.printSummary();
+            exporter.close();
+            AuctionLog.closeTrace();
+            Log.printLine("OnlineAuctionSimulation finished!");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * One kind of host in a scenario. The weight sets its share of the fleet.
+ */
+public class HostTemplate {
+
+    private final String name;
+    private final double weight;
+    private final int pes;
+    private final double mipsPerPe;
+    private final int ram;
+    private final long bw;
+    private final long storage;
+    private final double tokens;
+
+    public HostTemplate(String name, double weight, int pes, double mipsPerPe, int ram, long bw, long storage, double tokens) {
+        this.name = name;
+        this.weight = weight;
+        this.pes = pes;
+        this.mipsPerPe = mipsPerPe;
+        this.ram = ram;
+        this.bw = bw;
+        this.storage = storage;
+        this.tokens = tokens;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public int getPes() {
+        return pes;
+    }
+
+    public double getMipsPerPe() {
+        return mipsPerPe;
+    }
+
+    public int getRam() {
+        return ram;
+    }
+
+    public long getBw() {
+        return bw;
+    }
+
+    public long getStorage() {
+        return storage;
+    }
+
+    /** Initial token balance when the host is a TokenBiddingHost. */
+    public double getTokens() {
+        return tokens;
+    }
+}
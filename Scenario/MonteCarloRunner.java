@@ -0,0 +1,159 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares the placement strategies over many seeded replicas of one scenario.
+ *
+ * Every replica runs every strategy, each run in its own JVM through SweepRunner, as many
+ * at once as there are cores. Each result is appended to a CSV file the moment its run
+ * finishes and folded into per-strategy RunningStats, so memory stays the same however
+ * many replicas run. At the end the mean, standard deviation and 95% confidence interval
+ * of every metric are printed per strategy as CSV.
+ *
+ * The seed only changes a scenario through its jitter, so a spec without any jitter,
+ * such as the built-in uniform and mixed fleets, is given DEFAULT_JITTER on hosts, VMs
+ * and cloudlets; otherwise every replica would be the same run.
+ *
+ * <pre>
+ * java MonteCarloRunner [spec.properties|uniform|mixed] [replicas] [results.csv] [parallelism]
+ * </pre>
+ */
+public class MonteCarloRunner {
+
+    public static final String SUMMARY_HEADER = "strategy,metric,replicas,mean,stddev,ci95Low,ci95High";
+
+    /** Jitter given to a spec that has none, so its replicas differ. */
+    public static final double DEFAULT_JITTER = 0.1;
+
+    /** The figures compared across strategies. */
+    public enum Metric {
+        MAKESPAN(RunResult::getMakespan),
+        ENERGY_KWH(RunResult::getEnergyKWh),
+        SLA_VIOLATIONS(RunResult::getSlaViolations),
+        PLACEMENT_FAILURES(RunResult::getVmsFailed),
+        DECISION_MICROS(RunResult::getDecisionMicros),
+        PLACEMENT_MILLIS(RunResult::getPlacementMillis);
+
+        private final ToDoubleFunction<RunResult> value;
+
+        Metric(ToDoubleFunction<RunResult> value) {
+            this.value = value;
+        }
+
+        public double of(RunResult result) {
+            return value.applyAsDouble(result);
+        }
+    }
+
+    private final Map<PlacementStrategy, RunningStats[]> stats = new EnumMap<>(PlacementStrategy.class);
+
+    public MonteCarloRunner() {
+        for (PlacementStrategy strategy : PlacementStrategy.values()) {
+            RunningStats[] perMetric = new RunningStats[Metric.values().length];
+            for (int m = 0; m < perMetric.length; m++) {
+                perMetric[m] = new RunningStats();
+            }
+            stats.put(strategy, perMetric);
+        }
+    }
+
+    /** Adds one run to its strategy's statistics. */
+    public void add(RunResult result) {
+        RunningStats[] perMetric = stats.get(result.getStrategy());
+        for (Metric metric : Metric.values()) {
+            perMetric[metric.ordinal()].add(metric.of(result));
+        }
+    }
+
+    public RunningStats getStats(PlacementStrategy strategy, Metric metric) {
+        return stats.get(strategy)[metric.ordinal()];
+    }
+
+    /** One CSV row per strategy and metric that has results. */
+    public String toSummaryCsv() {
+        StringBuilder csv = new StringBuilder(SUMMARY_HEADER).append(System.lineSeparator());
+        for (PlacementStrategy strategy : PlacementStrategy.values()) {
+            for (Metric metric : Metric.values()) {
+                RunningStats s = getStats(strategy, metric);
+                if (s.getCount() == 0) {
+                    continue;
+                }
+                double half = s.getConfidenceHalfWidth();
+                csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.6f,%.6f,%.6f,%.6f", strategy, metric, s.getCount(),
+                        s.getMean(), s.getStandardDeviation(), s.getMean() - half, s.getMean() + half))
+                        .append(System.lineSeparator());
+            }
+        }
+        return csv.toString();
+    }
+
+    /** The spec itself if the seed varies it, otherwise the spec with DEFAULT_JITTER everywhere. */
+    static ScenarioSpec withVariation(ScenarioSpec spec) {
+        if (spec.getHostJitter() > 0 || spec.getVmJitter() > 0 || spec.getCloudletJitter() > 0) {
+            return spec;
+        }
+        System.err.printf("Spec has no jitter, so all replicas would be identical; using jitter %.2f%n", DEFAULT_JITTER);
+        return spec.withJitter(DEFAULT_JITTER, DEFAULT_JITTER, DEFAULT_JITTER);
+    }
+
+    /** The base spec with seeds base, base + 1, ... drawn one at a time. */
+    static Iterator<ScenarioSpec> replicas(ScenarioSpec base, int count) {
+        return new Iterator<ScenarioSpec>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public ScenarioSpec next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return base.withSeed(base.getSeed() + next++);
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        ScenarioSpec base = withVariation(ScenarioRunner.loadSpec(args.length > 0 ? args[0] : "mixed"));
+        int replicas = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String output = args.length > 2 ? args[2] : "montecarlo.csv";
+        SweepRunner runner = args.length > 3 ? new SweepRunner(Integer.parseInt(args[3])) : new SweepRunner();
+
+        MonteCarloRunner monteCarlo = new MonteCarloRunner();
+        long start = System.nanoTime();
+        long failures;
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            out.write(RunResult.CSV_HEADER);
+            out.newLine();
+            failures = runner.stream(replicas(base, replicas), Arrays.asList(PlacementStrategy.values()), result -> {
+                try {
+                    out.write(result.toCsv());
+                    out.newLine();
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                monteCarlo.add(result);
+            });
+        }
+        System.out.print(monteCarlo.toSummaryCsv());
+        System.err.printf("%d replicas of %d strategies in %.1f s, %d runs failed; per-run results in %s%n", replicas,
+                PlacementStrategy.values().length, (System.nanoTime() - start) / 1e9, failures, output);
+    }
+}
@@ -0,0 +1,22 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * The placement models a scenario can be run with, and the host class each one needs.
+ */
+public enum PlacementStrategy {
+
+    BASELINE(ScenarioBuilder.HostKind.PLAIN),
+    HEURISTIC(ScenarioBuilder.HostKind.PLAIN),
+    BASIC_AUCTION(ScenarioBuilder.HostKind.BASIC_BIDDING),
+    TOKEN_AUCTION(ScenarioBuilder.HostKind.TOKEN_BIDDING);
+
+    private final ScenarioBuilder.HostKind hostKind;
+
+    PlacementStrategy(ScenarioBuilder.HostKind hostKind) {
+        this.hostKind = hostKind;
+    }
+
+    public ScenarioBuilder.HostKind getHostKind() {
+        return hostKind;
+    }
+}
@@ -0,0 +1,130 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Locale;
+
+/**
+ * Metrics of one scenario run. Converts to and from a CSV row so forked runs can report
+ * back over stdout and sweeps can stream their results to a file.
+ */
+public class RunResult {
+
+    public static final String CSV_HEADER =
+            "strategy,seed,hosts,vms,cloudlets,vmsCreated,vmsFailed,cloudletsCompleted,slaViolations,makespan,energyKWh,placementMillis,decisionMicros,wallMillis";
+
+    private final PlacementStrategy strategy;
+    private final long seed;
+    private final int hosts;
+    private final int vms;
+    private final int cloudlets;
+    private final int vmsCreated;
+    private final int vmsFailed;
+    private final int cloudletsCompleted;
+    private final int slaViolations;
+    private final double makespan;
+    private final double energyKWh;
+    private final double placementMillis;
+    private final double decisionMicros;
+    private final double wallMillis;
+
+    /**
+     * @param slaViolations cloudlets that did not complete or took longer than the SLA allows
+     * @param decisionMicros mean wall time of one placement decision, 0 if not measured
+     */
+    public RunResult(PlacementStrategy strategy, long seed, int hosts, int vms, int cloudlets, int vmsCreated, int vmsFailed,
+            int cloudletsCompleted, int slaViolations, double makespan, double energyKWh, double placementMillis,
+            double decisionMicros, double wallMillis) {
+        this.strategy = strategy;
+        this.seed = seed;
+        this.hosts = hosts;
+        this.vms = vms;
+        this.cloudlets = cloudlets;
+        this.vmsCreated = vmsCreated;
+        this.vmsFailed = vmsFailed;
+        this.cloudletsCompleted = cloudletsCompleted;
+        this.slaViolations = slaViolations;
+        this.makespan = makespan;
+        this.energyKWh = energyKWh;
+        this.placementMillis = placementMillis;
+        this.decisionMicros = decisionMicros;
+        this.wallMillis = wallMillis;
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%d,%.4f,%.6f,%.3f,%.3f,%.3f",
+                strategy, seed, hosts, vms, cloudlets, vmsCreated, vmsFailed, cloudletsCompleted, slaViolations,
+                makespan, energyKWh, placementMillis, decisionMicros, wallMillis);
+    }
+
+    public static RunResult fromCsv(String line) {
+        String[] f = line.trim().split(",");
+        if (f.length != 14) {
+            throw new IllegalArgumentException("Expected 14 fields in run result: " + line);
+        }
+        return new RunResult(PlacementStrategy.valueOf(f[0]), Long.parseLong(f[1]), Integer.parseInt(f[2]),
+                Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5]), Integer.parseInt(f[6]),
+                Integer.parseInt(f[7]), Integer.parseInt(f[8]), Double.parseDouble(f[9]), Double.parseDouble(f[10]),
+                Double.parseDouble(f[11]), Double.parseDouble(f[12]), Double.parseDouble(f[13]));
+    }
+
+    public PlacementStrategy getStrategy() {
+        return strategy;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getHosts() {
+        return hosts;
+    }
+
+    public int getVms() {
+        return vms;
+    }
+
+    public int getCloudlets() {
+        return cloudlets;
+    }
+
+    public int getVmsCreated() {
+        return vmsCreated;
+    }
+
+    public int getVmsFailed() {
+        return vmsFailed;
+    }
+
+    public int getCloudletsCompleted() {
+        return cloudletsCompleted;
+    }
+
+    public int getSlaViolations() {
+        return slaViolations;
+    }
+
+    public double getMakespan() {
+        return makespan;
+    }
+
+    public double getEnergyKWh() {
+        return energyKWh;
+    }
+
+    public double getPlacementMillis() {
+        return placementMillis;
+    }
+
+    public double getDecisionMicros() {
+        return decisionMicros;
+    }
+
+    public double getWallMillis() {
+        return wallMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s seed %d: %d/%d VMs created, %d/%d cloudlets done, %d SLA violations, makespan %.2f, energy %.4f kWh, placement %.2f ms",
+                strategy, seed, vmsCreated, vms, cloudletsCompleted, cloudlets, slaViolations, makespan, energyKWh, placementMillis);
+    }
+}
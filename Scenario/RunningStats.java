@@ -0,0 +1,57 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Mean, standard deviation and a 95% confidence interval of a stream of values, updated
+ * one value at a time (Welford's method) so nothing but three numbers is kept.
+ *
+ * The interval uses Student's t distribution: exact critical values up to 30 degrees of
+ * freedom and a first-order expansion around the normal value above that.
+ */
+public class RunningStats {
+
+    private static final double[] T95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z95 = 1.959964;
+
+    private long count;
+    private double mean;
+    private double squares; // sum of squared differences from the mean
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squares += delta * (value - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /** Sample standard deviation, 0 for fewer than two values. */
+    public double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(squares / (count - 1));
+    }
+
+    /** Half the width of the 95% confidence interval of the mean, 0 for fewer than two values. */
+    public double getConfidenceHalfWidth() {
+        if (count < 2) {
+            return 0;
+        }
+        return criticalValue(count - 1) * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    static double criticalValue(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T95.length) {
+            return T95[(int) degreesOfFreedom - 1];
+        }
+        return Z95 + (Z95 * Z95 * Z95 + Z95) / (4.0 * degreesOfFreedom);
+    }
+}
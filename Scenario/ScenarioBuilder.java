@@ -0,0 +1,172 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * Builds the hosts, VMs, cloudlets and datacenter of a ScenarioSpec.
+ *
+ * Each list is drawn from its own random stream derived from the seed, so the same spec
+ * always builds the same scenario, and changing the VM mix does not change the fleet.
+ */
+public class ScenarioBuilder {
+
+    /** Which host class the fleet is built from. */
+    public enum HostKind {
+        PLAIN, BASIC_BIDDING, TOKEN_BIDDING
+    }
+
+    private static final long HOST_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long VM_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long CLOUDLET_STREAM = 0x165667B19E3779F9L;
+
+    private final ScenarioSpec spec;
+
+    public ScenarioBuilder(ScenarioSpec spec) {
+        this.spec = spec;
+    }
+
+    public ScenarioSpec getSpec() {
+        return spec;
+    }
+
+    public List<Host> createHosts(HostKind kind) {
+        Random random = new Random(spec.getSeed() ^ HOST_STREAM);
+        List<HostTemplate> templates = spec.getHostTemplates();
+        double[] weights = new double[templates.size()];
+        for (int t = 0; t < weights.length; t++) {
+            weights[t] = templates.get(t).getWeight();
+        }
+        int[] counts = apportion(spec.getHostCount(), weights);
+
+        List<Host> hosts = new ArrayList<>(spec.getHostCount());
+        for (int t = 0; t < counts.length; t++) {
+            HostTemplate template = templates.get(t);
+            for (int n = 0; n < counts[t]; n++) {
+                int id = hosts.size();
+                double mips = jitter(template.getMipsPerPe(), spec.getHostJitter(), random);
+                int ram = (int) Math.round(jitter(template.getRam(), spec.getHostJitter(), random));
+                List<Pe> peList = new ArrayList<>(template.getPes());
+                for (int p = 0; p < template.getPes(); p++) {
+                    peList.add(new Pe(p, new PeProvisionerSimple(mips)));
+                }
+                hosts.add(createHost(kind, id, ram, template.getBw(), template.getStorage(), peList, template.getTokens()));
+            }
+        }
+        return hosts;
+    }
+
+    public List<Vm> createVms(int brokerId) {
+        Random random = new Random(spec.getSeed() ^ VM_STREAM);
+        List<VmTemplate> templates = spec.getVmTemplates();
+        double[] weights = new double[templates.size()];
+        for (int t = 0; t < weights.length; t++) {
+            weights[t] = templates.get(t).getWeight();
+        }
+        int[] counts = apportion(spec.getVmCount(), weights);
+
+        List<Vm> vms = new ArrayList<>(spec.getVmCount());
+        for (int t = 0; t < counts.length; t++) {
+            VmTemplate template = templates.get(t);
+            for (int n = 0; n < counts[t]; n++) {
+                double mips = jitter(template.getMips(), spec.getVmJitter(), random);
+                int ram = (int) Math.round(jitter(template.getRam(), spec.getVmJitter(), random));
+                vms.add(new Vm(vms.size(), brokerId, mips, template.getPes(), ram, template.getBw(), template.getSize(),
+                        "Xen", new CloudletSchedulerTimeShared()));
+            }
+        }
+        return vms;
+    }
+
+    public List<Cloudlet> createCloudlets(int brokerId) {
+        Random random = new Random(spec.getSeed() ^ CLOUDLET_STREAM);
+        List<Cloudlet> cloudlets = new ArrayList<>(spec.getCloudletCount());
+        UtilizationModelFull utilizationModel = new UtilizationModelFull();
+        for (int i = 0; i < spec.getCloudletCount(); i++) {
+            long length = Math.round(jitter(spec.getCloudletLength(), spec.getCloudletJitter(), random));
+            Cloudlet cloudlet = new Cloudlet(i, length, spec.getCloudletPes(), spec.getCloudletFileSize(), spec.getCloudletOutputSize(),
+                    utilizationModel, utilizationModel, utilizationModel);
+            cloudlet.setUserId(brokerId);
+            cloudlets.add(cloudlet);
+        }
+        return cloudlets;
+    }
+
+    /**
+     * A metered datacenter with the characteristics all simulations in this repository use.
+     */
+    public static MeteredDatacenter createDatacenter(String name, List<Host> hosts, VmAllocationPolicy policy,
+            EnergyMeter energyMeter) throws Exception {
+        DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+                "x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0);
+        return new MeteredDatacenter(name, characteristics, policy, new LinkedList<Storage>(), 0, energyMeter);
+    }
+
+    private static Host createHost(HostKind kind, int id, int ram, long bw, long storage, List<Pe> peList, double tokens) {
+        switch (kind) {
+            case BASIC_BIDDING:
+                return new BasicBiddingHost(id, new RamProvisionerSimple(ram), new BwProvisionerSimple(bw), storage, peList,
+                        new VmSchedulerTimeShared(peList));
+            case TOKEN_BIDDING:
+                return new TokenBiddingHost(id, new RamProvisionerSimple(ram), new BwProvisionerSimple(bw), storage, peList,
+                        new VmSchedulerTimeShared(peList), tokens);
+            default:
+                return new TrackedHost(id, new RamProvisionerSimple(ram), new BwProvisionerSimple(bw), storage, peList,
+                        new VmSchedulerTimeShared(peList));
+        }
+    }
+
+    /**
+     * Splits total into integer shares proportional to the weights, giving the leftover
+     * units to the largest remainders (earlier templates first on ties).
+     */
+    static int[] apportion(int total, double[] weights) {
+        double sum = 0;
+        for (double w : weights) {
+            sum += w;
+        }
+        int[] counts = new int[weights.length];
+        double[] remainder = new double[weights.length];
+        int assigned = 0;
+        for (int t = 0; t < weights.length; t++) {
+            double exact = sum > 0 ? total * weights[t] / sum : 0;
+            counts[t] = (int) Math.floor(exact);
+            remainder[t] = exact - counts[t];
+            assigned += counts[t];
+        }
+        while (assigned < total) {
+            int best = 0;
+            for (int t = 1; t < weights.length; t++) {
+                if (remainder[t] > remainder[best]) {
+                    best = t;
+                }
+            }
+            counts[best]++;
+            remainder[best] = -1;
+            assigned++;
+        }
+        return counts;
+    }
+
+    private static double jitter(double value, double fraction, Random random) {
+        if (fraction <= 0) {
+            return value;
+        }
+        return value * (1 + fraction * (2 * random.nextDouble() - 1));
+    }
+}
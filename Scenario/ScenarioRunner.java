@@ -0,0 +1,159 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Runs one scenario with one placement strategy and reports its metrics.
+ *
+ * CloudSim keeps its simulation state in static fields, so a JVM can only run one
+ * scenario at a time. SweepRunner therefore starts this class in a separate JVM per run:
+ *
+ * <pre>
+ * java ScenarioRunner &lt;spec.properties | uniform | mixed&gt; &lt;strategy&gt;
+ * </pre>
+ *
+ * and reads the line starting with RESULT_PREFIX from its output.
+ */
+public class ScenarioRunner {
+
+    public static final String RESULT_PREFIX = "RESULT,";
+
+    /**
+     * A cloudlet meets its SLA if it completes within this many times the run time it
+     * would have alone on its VM's full MIPS.
+     */
+    public static final double SLA_SLOWDOWN = 2.0;
+
+    private static final double HOST_POWER_IDLE = 100;
+    private static final double HOST_POWER_FULL = 200;
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: ScenarioRunner <spec.properties|uniform|mixed> <strategy>, strategy one of " + Arrays.toString(PlacementStrategy.values()));
+            System.exit(2);
+        }
+        try {
+            ScenarioSpec spec = loadSpec(args[0]);
+            PlacementStrategy strategy = PlacementStrategy.valueOf(args[1]);
+            Log.disable();
+            RunResult result = run(spec, strategy);
+            System.out.println(RESULT_PREFIX + result.toCsv());
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    static ScenarioSpec loadSpec(String name) throws Exception {
+        if ("uniform".equals(name)) {
+            return ScenarioSpec.uniformFleet();
+        }
+        if ("mixed".equals(name)) {
+            return ScenarioSpec.mixedFleet();
+        }
+        return ScenarioSpec.load(Paths.get(name));
+    }
+
+    /**
+     * Runs the scenario in the CloudSim instance of the calling JVM. Placement time is only
+     * measured for the auction strategies, which place VMs before the simulation starts;
+     * the others place inside the simulation and report 0. The mean decision time per VM
+     * is measured for every strategy but BASELINE, whose policy has no metrics.
+     */
+    public static RunResult run(ScenarioSpec spec, PlacementStrategy strategy) throws Exception {
+        long wallStart = System.nanoTime();
+        CloudSim.init(1, Calendar.getInstance(), false);
+
+        ScenarioBuilder builder = new ScenarioBuilder(spec);
+        List<Host> hostList = builder.createHosts(strategy.getHostKind());
+        EnergyMeter energyMeter = new EnergyMeter(hostList, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+        VmAllocationPolicy policy = createPolicy(strategy, hostList);
+        PlacementMetrics metrics = new PlacementMetrics();
+        if (policy instanceof HeuristicVmAllocationPolicy) {
+            ((HeuristicVmAllocationPolicy) policy).setMetrics(metrics);
+        }
+        MeteredDatacenter datacenter = ScenarioBuilder.createDatacenter("Datacenter_0", hostList, policy, energyMeter);
+
+        DatacenterBroker broker = createBroker(strategy);
+        List<Vm> vmList = builder.createVms(broker.getId());
+        broker.submitGuestList(vmList);
+        broker.submitCloudletList(builder.createCloudlets(broker.getId()));
+
+        long placementNanos = 0;
+        if (broker instanceof BasicAuctionBroker) {
+            long placementStart = System.nanoTime();
+            ((BasicAuctionBroker) broker).setAllocationPolicy((AuctionVmAllocationPolicy) policy);
+            ((BasicAuctionBroker) broker).setMetrics(metrics);
+            ((BasicAuctionBroker) broker).placeVmsUsingAuction(hostList);
+            placementNanos = System.nanoTime() - placementStart;
+        } else if (broker instanceof TokenAuctionBroker) {
+            long placementStart = System.nanoTime();
+            ((TokenAuctionBroker) broker).setAllocationPolicy((AuctionVmAllocationPolicy) policy);
+            ((TokenAuctionBroker) broker).setMetrics(metrics);
+            ((TokenAuctionBroker) broker).placeVmsUsingTokenAuction(hostList);
+            placementNanos = System.nanoTime() - placementStart;
+        }
+
+        double lastClock = CloudSim.startSimulation();
+        List<Cloudlet> received = broker.getCloudletReceivedList();
+        CloudSim.stopSimulation();
+        energyMeter.finish(lastClock);
+
+        double[] vmMips = new double[vmList.size()];
+        for (Vm vm : vmList) {
+            vmMips[vm.getId()] = vm.getMips();
+        }
+        int completed = 0;
+        int withinSla = 0;
+        double makespan = 0;
+        for (Cloudlet cloudlet : received) {
+            if (cloudlet.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {
+                completed++;
+                makespan = Math.max(makespan, cloudlet.getFinishTime());
+                double alone = cloudlet.getCloudletLength() / vmMips[cloudlet.getVmId()];
+                if (cloudlet.getFinishTime() - cloudlet.getSubmissionTime() <= SLA_SLOWDOWN * alone) {
+                    withinSla++;
+                }
+            }
+        }
+        LatencyHistogram decisions = metrics.getRoundLatency().getCount() > 0 ? metrics.getRoundLatency() : metrics.getPlacementLatency();
+        return new RunResult(strategy, spec.getSeed(), hostList.size(), vmList.size(), spec.getCloudletCount(),
+                datacenter.getVmsCreated(), datacenter.getVmsFailed(), completed, spec.getCloudletCount() - withinSla, makespan,
+                energyMeter.getTotalEnergyKWh(), placementNanos / 1e6, decisions.getMean() / 1e3,
+                (System.nanoTime() - wallStart) / 1e6);
+    }
+
+    private static VmAllocationPolicy createPolicy(PlacementStrategy strategy, List<Host> hostList) {
+        switch (strategy) {
+            case HEURISTIC:
+                return new HeuristicVmAllocationPolicy(hostList);
+            case BASIC_AUCTION:
+            case TOKEN_AUCTION:
+                return new AuctionVmAllocationPolicy(hostList);
+            default:
+                return new VmAllocationPolicySimple(hostList);
+        }
+    }
+
+    private static DatacenterBroker createBroker(PlacementStrategy strategy) throws Exception {
+        switch (strategy) {
+            case BASIC_AUCTION:
+                return new BasicAuctionBroker("AuctionBroker");
+            case TOKEN_AUCTION:
+                return new TokenAuctionBroker("TokenAuctionBroker");
+            default:
+                return new DatacenterBroker("Broker");
+        }
+    }
+}
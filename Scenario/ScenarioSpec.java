@@ -0,0 +1,283 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Declarative description of a simulation scenario: fleet mix, VM mix, workload and seed.
+ *
+ * Hosts and VMs are drawn from weighted templates. Each template gets its share of the
+ * count (largest remainders first) and the jitter settings vary MIPS and RAM by up to
+ * +/- jitter around the template, using the seed. Specs are immutable; the with*
+ * methods return modified copies. They round-trip through a properties file:
+ *
+ * <pre>
+ * seed=42
+ * hosts.count=1000
+ * hosts.jitter=0.1
+ * hosts.templates=large,small
+ * hosts.large.weight=1
+ * hosts.large.pes=4
+ * hosts.large.mips=4000
+ * hosts.large.ram=16384
+ * hosts.large.bw=20000
+ * hosts.large.storage=2000000
+ * hosts.large.tokens=1000
+ * vms.count=5000
+ * vms.templates=std
+ * vms.std.mips=1000
+ * ...
+ * cloudlets.count=10000
+ * cloudlets.length=400000
+ * </pre>
+ */
+public class ScenarioSpec {
+
+    private final long seed;
+    private final int hostCount;
+    private final double hostJitter;
+    private final List<HostTemplate> hostTemplates;
+    private final int vmCount;
+    private final double vmJitter;
+    private final List<VmTemplate> vmTemplates;
+    private final int cloudletCount;
+    private final long cloudletLength;
+    private final int cloudletPes;
+    private final long cloudletFileSize;
+    private final long cloudletOutputSize;
+    private final double cloudletJitter;
+
+    public ScenarioSpec(long seed, int hostCount, double hostJitter, List<HostTemplate> hostTemplates,
+            int vmCount, double vmJitter, List<VmTemplate> vmTemplates,
+            int cloudletCount, long cloudletLength, int cloudletPes, long cloudletFileSize, long cloudletOutputSize,
+            double cloudletJitter) {
+        if (hostTemplates.isEmpty() || vmTemplates.isEmpty()) {
+            throw new IllegalArgumentException("A scenario needs at least one host template and one VM template");
+        }
+        this.seed = seed;
+        this.hostCount = hostCount;
+        this.hostJitter = hostJitter;
+        this.hostTemplates = Collections.unmodifiableList(new ArrayList<>(hostTemplates));
+        this.vmCount = vmCount;
+        this.vmJitter = vmJitter;
+        this.vmTemplates = Collections.unmodifiableList(new ArrayList<>(vmTemplates));
+        this.cloudletCount = cloudletCount;
+        this.cloudletLength = cloudletLength;
+        this.cloudletPes = cloudletPes;
+        this.cloudletFileSize = cloudletFileSize;
+        this.cloudletOutputSize = cloudletOutputSize;
+        this.cloudletJitter = cloudletJitter;
+    }
+
+    /**
+     * The fleet of the auction simulations: identical hosts with 2 PEs of 2000 MIPS.
+     */
+    public static ScenarioSpec uniformFleet() {
+        List<HostTemplate> hosts = new ArrayList<>();
+        hosts.add(new HostTemplate("standard", 1, 2, 2000, 8192, 10000, 1000000, 1000.0));
+        return new ScenarioSpec(0, 2, 0, hosts, 5, 0, defaultVms(), 10, 400000, 1, 300, 300, 0);
+    }
+
+    /**
+     * The fleet of the Baseline and Heuristic simulations: one powerful and one weaker host.
+     */
+    public static ScenarioSpec mixedFleet() {
+        List<HostTemplate> hosts = new ArrayList<>();
+        hosts.add(new HostTemplate("powerful", 1, 4, 4000, 16384, 20000, 2000000, 1000.0));
+        hosts.add(new HostTemplate("weak", 1, 1, 1000, 4096, 5000, 500000, 1000.0));
+        return new ScenarioSpec(0, 2, 0, hosts, 5, 0, defaultVms(), 10, 400000, 1, 300, 300, 0);
+    }
+
+    private static List<VmTemplate> defaultVms() {
+        List<VmTemplate> vms = new ArrayList<>();
+        vms.add(new VmTemplate("standard", 1, 1000, 1, 512, 1000, 10000));
+        return vms;
+    }
+
+    public ScenarioSpec withSeed(long newSeed) {
+        return new ScenarioSpec(newSeed, hostCount, hostJitter, hostTemplates, vmCount, vmJitter, vmTemplates,
+                cloudletCount, cloudletLength, cloudletPes, cloudletFileSize, cloudletOutputSize, cloudletJitter);
+    }
+
+    public ScenarioSpec withHostCount(int newHostCount) {
+        return new ScenarioSpec(seed, newHostCount, hostJitter, hostTemplates, vmCount, vmJitter, vmTemplates,
+                cloudletCount, cloudletLength, cloudletPes, cloudletFileSize, cloudletOutputSize, cloudletJitter);
+    }
+
+    public ScenarioSpec withVmCount(int newVmCount) {
+        return new ScenarioSpec(seed, hostCount, hostJitter, hostTemplates, newVmCount, vmJitter, vmTemplates,
+                cloudletCount, cloudletLength, cloudletPes, cloudletFileSize, cloudletOutputSize, cloudletJitter);
+    }
+
+    public ScenarioSpec withCloudletCount(int newCloudletCount) {
+        return new ScenarioSpec(seed, hostCount, hostJitter, hostTemplates, vmCount, vmJitter, vmTemplates,
+                newCloudletCount, cloudletLength, cloudletPes, cloudletFileSize, cloudletOutputSize, cloudletJitter);
+    }
+
+    public ScenarioSpec withJitter(double newHostJitter, double newVmJitter, double newCloudletJitter) {
+        return new ScenarioSpec(seed, hostCount, newHostJitter, hostTemplates, vmCount, newVmJitter, vmTemplates,
+                cloudletCount, cloudletLength, cloudletPes, cloudletFileSize, cloudletOutputSize, newCloudletJitter);
+    }
+
+    public static ScenarioSpec load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    public void store(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            toProperties().store(writer, "Scenario");
+        }
+    }
+
+    public static ScenarioSpec fromProperties(Properties p) {
+        List<HostTemplate> hosts = new ArrayList<>();
+        for (String name : p.getProperty("hosts.templates", "").split(",")) {
+            String key = "hosts." + name.trim() + ".";
+            hosts.add(new HostTemplate(name.trim(),
+                    Double.parseDouble(p.getProperty(key + "weight", "1")),
+                    Integer.parseInt(required(p, key + "pes")),
+                    Double.parseDouble(required(p, key + "mips")),
+                    Integer.parseInt(required(p, key + "ram")),
+                    Long.parseLong(required(p, key + "bw")),
+                    Long.parseLong(required(p, key + "storage")),
+                    Double.parseDouble(p.getProperty(key + "tokens", "1000"))));
+        }
+        List<VmTemplate> vms = new ArrayList<>();
+        for (String name : p.getProperty("vms.templates", "").split(",")) {
+            String key = "vms." + name.trim() + ".";
+            vms.add(new VmTemplate(name.trim(),
+                    Double.parseDouble(p.getProperty(key + "weight", "1")),
+                    Double.parseDouble(required(p, key + "mips")),
+                    Integer.parseInt(required(p, key + "pes")),
+                    Integer.parseInt(required(p, key + "ram")),
+                    Long.parseLong(required(p, key + "bw")),
+                    Long.parseLong(required(p, key + "size"))));
+        }
+        return new ScenarioSpec(
+                Long.parseLong(p.getProperty("seed", "0")),
+                Integer.parseInt(required(p, "hosts.count")),
+                Double.parseDouble(p.getProperty("hosts.jitter", "0")),
+                hosts,
+                Integer.parseInt(required(p, "vms.count")),
+                Double.parseDouble(p.getProperty("vms.jitter", "0")),
+                vms,
+                Integer.parseInt(required(p, "cloudlets.count")),
+                Long.parseLong(required(p, "cloudlets.length")),
+                Integer.parseInt(p.getProperty("cloudlets.pes", "1")),
+                Long.parseLong(p.getProperty("cloudlets.fileSize", "300")),
+                Long.parseLong(p.getProperty("cloudlets.outputSize", "300")),
+                Double.parseDouble(p.getProperty("cloudlets.jitter", "0")));
+    }
+
+    public Properties toProperties() {
+        Properties p = new Properties();
+        p.setProperty("seed", Long.toString(seed));
+        p.setProperty("hosts.count", Integer.toString(hostCount));
+        p.setProperty("hosts.jitter", Double.toString(hostJitter));
+        List<String> hostNames = new ArrayList<>();
+        for (HostTemplate t : hostTemplates) {
+            String key = "hosts." + t.getName() + ".";
+            hostNames.add(t.getName());
+            p.setProperty(key + "weight", Double.toString(t.getWeight()));
+            p.setProperty(key + "pes", Integer.toString(t.getPes()));
+            p.setProperty(key + "mips", Double.toString(t.getMipsPerPe()));
+            p.setProperty(key + "ram", Integer.toString(t.getRam()));
+            p.setProperty(key + "bw", Long.toString(t.getBw()));
+            p.setProperty(key + "storage", Long.toString(t.getStorage()));
+            p.setProperty(key + "tokens", Double.toString(t.getTokens()));
+        }
+        p.setProperty("hosts.templates", String.join(",", hostNames));
+        p.setProperty("vms.count", Integer.toString(vmCount));
+        p.setProperty("vms.jitter", Double.toString(vmJitter));
+        List<String> vmNames = new ArrayList<>();
+        for (VmTemplate t : vmTemplates) {
+            String key = "vms." + t.getName() + ".";
+            vmNames.add(t.getName());
+            p.setProperty(key + "weight", Double.toString(t.getWeight()));
+            p.setProperty(key + "mips", Double.toString(t.getMips()));
+            p.setProperty(key + "pes", Integer.toString(t.getPes()));
+            p.setProperty(key + "ram", Integer.toString(t.getRam()));
+            p.setProperty(key + "bw", Long.toString(t.getBw()));
+            p.setProperty(key + "size", Long.toString(t.getSize()));
+        }
+        p.setProperty("vms.templates", String.join(",", vmNames));
+        p.setProperty("cloudlets.count", Integer.toString(cloudletCount));
+        p.setProperty("cloudlets.length", Long.toString(cloudletLength));
+        p.setProperty("cloudlets.pes", Integer.toString(cloudletPes));
+        p.setProperty("cloudlets.fileSize", Long.toString(cloudletFileSize));
+        p.setProperty("cloudlets.outputSize", Long.toString(cloudletOutputSize));
+        p.setProperty("cloudlets.jitter", Double.toString(cloudletJitter));
+        return p;
+    }
+
+    private static String required(Properties p, String key) {
+        String value = p.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Scenario property " + key + " is missing");
+        }
+        return value;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getHostCount() {
+        return hostCount;
+    }
+
+    public double getHostJitter() {
+        return hostJitter;
+    }
+
+    public List<HostTemplate> getHostTemplates() {
+        return hostTemplates;
+    }
+
+    public int getVmCount() {
+        return vmCount;
+    }
+
+    public double getVmJitter() {
+        return vmJitter;
+    }
+
+    public List<VmTemplate> getVmTemplates() {
+        return vmTemplates;
+    }
+
+    public int getCloudletCount() {
+        return cloudletCount;
+    }
+
+    public long getCloudletLength() {
+        return cloudletLength;
+    }
+
+    public int getCloudletPes() {
+        return cloudletPes;
+    }
+
+    public long getCloudletFileSize() {
+        return cloudletFileSize;
+    }
+
+    public long getCloudletOutputSize() {
+        return cloudletOutputSize;
+    }
+
+    public double getCloudletJitter() {
+        return cloudletJitter;
+    }
+}
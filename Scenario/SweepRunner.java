@@ -0,0 +1,205 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs every combination of scenarios and placement strategies, each in its own JVM.
+ *
+ * CloudSim's static state rules out running simulations on several threads of one JVM,
+ * so every run is a ScenarioRunner child process on the current classpath. Up to
+ * "parallelism" children run at once; results are handed to the callback as each run
+ * finishes and are returned in combination order. A failed run is reported and skipped
+ * instead of stopping the sweep. stream() runs a sweep of any length without keeping
+ * its results.
+ */
+public class SweepRunner {
+
+    private static final int OUTPUT_LINES_KEPT = 20;
+
+    private final int parallelism;
+    private final List<String> jvmArguments = new ArrayList<>();
+    private final String javaExecutable;
+    private final String classPath;
+
+    public SweepRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SweepRunner(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.javaExecutable = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        this.classPath = System.getProperty("java.class.path");
+    }
+
+    /**
+     * Extra arguments for every child JVM, e.g. a heap size.
+     */
+    public void setJvmArguments(List<String> arguments) {
+        jvmArguments.clear();
+        jvmArguments.addAll(arguments);
+    }
+
+    public List<RunResult> run(List<ScenarioSpec> specs, List<PlacementStrategy> strategies, Consumer<RunResult> onResult)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        List<Future<RunResult>> futures = new ArrayList<>();
+        try {
+            for (ScenarioSpec spec : specs) {
+                for (PlacementStrategy strategy : strategies) {
+                    futures.add(pool.submit(() -> {
+                        RunResult result = runForked(spec, strategy);
+                        synchronized (onResult) {
+                            onResult.accept(result);
+                        }
+                        return result;
+                    }));
+                }
+            }
+            List<RunResult> results = new ArrayList<>(futures.size());
+            for (Future<RunResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Sweep run failed: " + e.getCause().getMessage());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs every strategy on every spec the iterator yields and hands each result to the
+     * callback as its run finishes, without keeping it. Specs are drawn only as runs
+     * finish, so a sweep over thousands of seeds holds a few runs at a time.
+     *
+     * @return the number of runs that failed, including runs whose result could not be
+     *         parsed or that the callback threw on
+     */
+    public long stream(Iterator<ScenarioSpec> specs, List<PlacementStrategy> strategies, Consumer<RunResult> onResult)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        Semaphore queued = new Semaphore(2 * parallelism);
+        AtomicLong failures = new AtomicLong();
+        try {
+            while (specs.hasNext()) {
+                ScenarioSpec spec = specs.next();
+                for (PlacementStrategy strategy : strategies) {
+                    queued.acquire();
+                    pool.execute(() -> {
+                        try {
+                            RunResult result = runForked(spec, strategy);
+                            synchronized (onResult) {
+                                onResult.accept(result);
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                            System.err.println("Sweep run failed: " + e.getMessage());
+                        } catch (RuntimeException e) {
+                            // An unparsable result or a failing callback must not vanish with the pool thread
+                            failures.incrementAndGet();
+                            System.err.println("Sweep run " + strategy + " seed " + spec.getSeed() + " failed: " + e);
+                        } catch (InterruptedException e) {
+                            failures.incrementAndGet();
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            queued.release();
+                        }
+                    });
+                }
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            return failures.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one scenario in a child JVM and parses its result line.
+     */
+    public RunResult runForked(ScenarioSpec spec, PlacementStrategy strategy) throws IOException, InterruptedException {
+        Path specFile = Files.createTempFile("scenario-", ".properties");
+        try {
+            spec.store(specFile);
+            List<String> command = new ArrayList<>();
+            command.add(javaExecutable);
+            command.addAll(jvmArguments);
+            command.add("-cp");
+            command.add(classPath);
+            command.add(ScenarioRunner.class.getName());
+            command.add(specFile.toString());
+            command.add(strategy.name());
+
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            RunResult result = null;
+            Deque<String> tail = new ArrayDeque<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(ScenarioRunner.RESULT_PREFIX)) {
+                        result = RunResult.fromCsv(line.substring(ScenarioRunner.RESULT_PREFIX.length()));
+                    } else {
+                        if (tail.size() == OUTPUT_LINES_KEPT) {
+                            tail.removeFirst();
+                        }
+                        tail.addLast(line);
+                    }
+                }
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || result == null) {
+                throw new IOException(String.format("%s seed %d exited with %d:%n%s",
+                        strategy, spec.getSeed(), exitCode, String.join(System.lineSeparator(), tail)));
+            }
+            return result;
+        } finally {
+            Files.deleteIfExists(specFile);
+        }
+    }
+
+    /**
+     * Sweeps all strategies over a number of seeds and prints one CSV row per run.
+     *
+     * <pre>
+     * java SweepRunner [spec.properties|uniform|mixed] [seeds] [parallelism]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        ScenarioSpec base = ScenarioRunner.loadSpec(args.length > 0 ? args[0] : "mixed");
+        int seeds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        SweepRunner runner = args.length > 2 ? new SweepRunner(Integer.parseInt(args[2])) : new SweepRunner();
+
+        List<ScenarioSpec> specs = new ArrayList<>(seeds);
+        for (int seed = 0; seed < seeds; seed++) {
+            specs.add(base.withSeed(base.getSeed() + seed));
+        }
+        long start = System.nanoTime();
+        System.out.println(RunResult.CSV_HEADER);
+        List<RunResult> results = runner.run(specs, Arrays.asList(PlacementStrategy.values()), r -> System.out.println(r.toCsv()));
+        System.err.printf("%d of %d runs finished in %.1f s%n",
+                results.size(), specs.size() * PlacementStrategy.values().length, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,53 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * One kind of VM request in a scenario. The weight sets its share of the VM list.
+ */
+public class VmTemplate {
+
+    private final String name;
+    private final double weight;
+    private final double mips;
+    private final int pes;
+    private final int ram;
+    private final long bw;
+    private final long size;
+
+    public VmTemplate(String name, double weight, double mips, int pes, int ram, long bw, long size) {
+        this.name = name;
+        this.weight = weight;
+        this.mips = mips;
+        this.pes = pes;
+        this.ram = ram;
+        this.bw = bw;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public double getMips() {
+        return mips;
+    }
+
+    public int getPes() {
+        return pes;
+    }
+
+    public int getRam() {
+        return ram;
+    }
+
+    public long getBw() {
+        return bw;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,139 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * One shard of a sharded auction: a rack, datacenter or region with hosts of its own.
+ *
+ * The shard runs ordinary per-VM auctions among its own BiddingHosts and reserves each
+ * winner through its datacenter's AuctionVmAllocationPolicy, so it never touches another
+ * shard's hosts and shards can run on separate threads. Towards the coordinator it is
+ * represented by a summary: its best current bid, and per resource the most any one host
+ * has free and the total free over all hosts.
+ */
+public class AuctionShard {
+
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+    private static final int R = ResourceType.COUNT;
+
+    private final String name;
+    private final List<? extends Host> hosts;
+    private final AuctionVmAllocationPolicy policy;
+    private final boolean tokenHosts;
+    private AuctionEngine auctionEngine = new SerialAuctionEngine();
+    private TieBreak tieBreak;
+    private PricingRule pricingRule = PricingRule.FIXED;
+
+    private double bestBid;
+    private final double[] maxFree = new double[R];
+    private final double[] totalFree = new double[R];
+
+    /**
+     * @param policy allocation policy of the datacenter that owns the hosts
+     */
+    public AuctionShard(String name, List<? extends Host> hosts, AuctionVmAllocationPolicy policy) {
+        this.name = name;
+        this.hosts = hosts;
+        this.policy = policy;
+        this.tokenHosts = !hosts.isEmpty() && hosts.get(0) instanceof TokenBiddingHost;
+        this.tieBreak = tokenHosts ? TokenBiddingHost.HIGHER_TOKEN_BALANCE : TieBreak.FIRST_IN_LIST;
+        summarize();
+    }
+
+    public void setAuctionEngine(AuctionEngine auctionEngine) {
+        this.auctionEngine = auctionEngine;
+    }
+
+    /** What the winners pay; token hosts are charged, other hosts only quote it. */
+    public void setPricingRule(PricingRule pricingRule) {
+        this.pricingRule = pricingRule;
+    }
+
+    /**
+     * Re-reads the summary from the hosts. O(hosts in the shard).
+     */
+    public void summarize() {
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < R; r++) {
+            maxFree[r] = 0;
+            totalFree[r] = 0;
+        }
+        for (Host host : hosts) {
+            double bid = ((BiddingHost) host).generateBid();
+            if (bid < best) {
+                best = bid;
+            }
+            for (int r = 0; r < R; r++) {
+                double free = RESOURCES[r].available(host);
+                maxFree[r] = Math.max(maxFree[r], free);
+                totalFree[r] += free;
+            }
+        }
+        bestBid = best;
+    }
+
+    /**
+     * Auctions the VMs one after another among the shard's hosts, reserving each winner
+     * so the next auction sees the capacity it took, then refreshes the summary. Results
+     * go to the given positions of the output arrays, which other shards do not write.
+     *
+     * @param indices positions of the VMs in the output arrays
+     * @return the number of VMs placed
+     */
+    int auction(List<? extends Vm> vms, int[] indices, int count, Host[] winners, double[] winningBids, double[] charges) {
+        int placed = 0;
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            Vm vm = vms.get(i);
+            AuctionOutcome outcome = auctionEngine.runAuction(vm, hosts, tieBreak);
+            Host winner = pricingRule.accepts(outcome.getWinningBid()) ? outcome.getWinner() : null;
+            double charge = pricingRule.price(outcome.getWinningBid(), outcome.getRunnerUpBid());
+            if (winner instanceof TokenBiddingHost && ((TokenBiddingHost) winner).getTokenBalance() < charge) {
+                winner = null;
+            }
+            if (winner == null || !policy.reserve(vm, winner)) {
+                continue;
+            }
+            if (winner instanceof TokenBiddingHost) {
+                ((TokenBiddingHost) winner).deductTokens(charge);
+            }
+            winners[i] = winner;
+            winningBids[i] = outcome.getWinningBid();
+            charges[i] = charge;
+            placed++;
+        }
+        policy.commit();
+        summarize();
+        return placed;
+    }
+
+    /** Refuses the VM's create request in this shard's datacenter; it was placed elsewhere or nowhere. */
+    void decline(Vm vm) {
+        policy.decline(vm);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<? extends Host> getHosts() {
+        return hosts;
+    }
+
+    /** Lowest bid of any host in the shard at the last summary, Double.MAX_VALUE if none bids. */
+    public double getBestBid() {
+        return bestBid;
+    }
+
+    /** Most of the resource any one host had free at the last summary. */
+    public double getMaxFree(ResourceType resource) {
+        return maxFree[resource.ordinal()];
+    }
+
+    /** Free amount of the resource over all hosts at the last summary. */
+    public double getTotalFree(ResourceType resource) {
+        return totalFree[resource.ordinal()];
+    }
+}
@@ -0,0 +1,209 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Places VMs in two levels: a coordinator routes each VM to one shard by looking only at
+ * the shards' summaries, and the shards auction their VMs among their own hosts, all
+ * shards at the same time on a thread pool.
+ *
+ * The coordinator sends a VM to the shard with the lowest best bid among those whose
+ * largest free slot fits the VM and whose total free capacity, less what was already
+ * routed there this round, still covers it. The summaries are a necessary condition
+ * only: a shard may find that no single host can take the VM after all. Such a misroute
+ * is sent to the next best shard in the following round, and no shard is tried twice for
+ * the same VM. The coordinator's work per VM grows with the number of shards instead of
+ * the number of hosts.
+ */
+public class ShardedAuction {
+
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+    private static final int R = ResourceType.COUNT;
+
+    private final List<AuctionShard> shards;
+    private int threads;
+
+    public ShardedAuction(List<AuctionShard> shards) {
+        this.shards = shards;
+        this.threads = shards.size();
+    }
+
+    /** Threads the shards' local auctions run on; one per shard by default. */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public List<AuctionShard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Places the VMs through the shards, then refuses every VM in the datacenters of the
+     * shards that did not place it, so each create request only succeeds where the
+     * auction put the VM.
+     */
+    public ShardedResult run(List<? extends Vm> vms) throws InterruptedException {
+        int n = vms.size();
+        int shardCount = shards.size();
+        Host[] winners = new Host[n];
+        double[] winningBids = new double[n];
+        double[] charges = new double[n];
+        int[] shardOf = new int[n];
+        BitSet tried = new BitSet(n * shardCount);
+        double[][] demand = new double[n][R];
+        for (int i = 0; i < n; i++) {
+            for (int r = 0; r < R; r++) {
+                demand[i][r] = RESOURCES[r].demand(vms.get(i));
+            }
+            shardOf[i] = -1;
+        }
+
+        int[] pending = new int[n];
+        for (int i = 0; i < n; i++) {
+            pending[i] = i;
+        }
+        int pendingCount = n;
+        int[][] batches = new int[shardCount][n];
+        int[] batchSizes = new int[shardCount];
+        double[][] free = new double[shardCount][R];
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, shardCount)));
+        long start = System.nanoTime();
+        long routingNanos = 0;
+        int rounds = 0;
+        long misroutes = 0;
+        long placed = 0;
+        try {
+            while (pendingCount > 0) {
+                long routeStart = System.nanoTime();
+                int deferred = route(pending, pendingCount, demand, tried, batches, batchSizes, free);
+                routingNanos += System.nanoTime() - routeStart;
+                if (deferred == pendingCount) {
+                    break;
+                }
+                rounds++;
+
+                List<Future<Integer>> futures = new ArrayList<>(shardCount);
+                for (int s = 0; s < shardCount; s++) {
+                    if (batchSizes[s] > 0) {
+                        AuctionShard shard = shards.get(s);
+                        int[] batch = batches[s];
+                        int size = batchSizes[s];
+                        futures.add(pool.submit(() -> shard.auction(vms, batch, size, winners, winningBids, charges)));
+                    }
+                }
+                for (Future<Integer> future : futures) {
+                    placed += future.get();
+                }
+
+                // Misroutes go back to the coordinator for the next round, after the VMs that
+                // did not fit anywhere this round but may once a misroute frees its capacity
+                routeStart = System.nanoTime();
+                pendingCount = deferred;
+                for (int s = 0; s < shardCount; s++) {
+                    for (int k = 0; k < batchSizes[s]; k++) {
+                        int i = batches[s][k];
+                        if (winners[i] == null) {
+                            pending[pendingCount++] = i;
+                            misroutes++;
+                        } else {
+                            shardOf[i] = s;
+                        }
+                    }
+                }
+                routingNanos += System.nanoTime() - routeStart;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A shard auction failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // Trace and log from this thread only; the trace writer takes a single producer
+        double now = CloudSim.clock();
+        for (int i = 0; i < n; i++) {
+            Vm vm = vms.get(i);
+            for (int s = 0; s < shardCount; s++) {
+                if (s != shardOf[i]) {
+                    shards.get(s).decline(vm);
+                }
+            }
+            Host winner = winners[i];
+            if (winner != null) {
+                AuctionLog.recordWin(now, vm.getId(), winner.getId(), winningBids[i], false);
+                if (winner instanceof TokenBiddingHost) {
+                    AuctionLog.recordTokens(now, vm.getId(), winner.getId(), charges[i]);
+                }
+                String shardName = shards.get(shardOf[i]).getName();
+                double bid = winningBids[i];
+                AuctionLog.debug(() -> String.format("--- VM #%d placed on Host #%d in %s with bundle bid %.2f",
+                        vm.getId(), winner.getId(), shardName, bid));
+            } else {
+                AuctionLog.recordNoWinner(now, vm.getId());
+                AuctionLog.info(() -> ">>> SHARDED AUCTION FAILED for VM #" + vm.getId() + ": No shard could take it.");
+            }
+        }
+        return new ShardedResult(shardCount, n, placed, rounds, misroutes, routingNanos, elapsed, winners, shardOf);
+    }
+
+    /**
+     * Hands each pending VM to the eligible shard with the lowest best bid, reserving its
+     * demand against the shard's total free capacity for the rest of the round. VMs that
+     * fit no shard are moved to the front of pending.
+     *
+     * @return the number of VMs left unrouted
+     */
+    private int route(int[] pending, int pendingCount, double[][] demand, BitSet tried,
+            int[][] batches, int[] batchSizes, double[][] free) {
+        int shardCount = shards.size();
+        for (int s = 0; s < shardCount; s++) {
+            batchSizes[s] = 0;
+            for (int r = 0; r < R; r++) {
+                free[s][r] = shards.get(s).getTotalFree(RESOURCES[r]);
+            }
+        }
+        int deferred = 0;
+        for (int k = 0; k < pendingCount; k++) {
+            int i = pending[k];
+            int best = -1;
+            double bestBid = Double.MAX_VALUE;
+            for (int s = 0; s < shardCount; s++) {
+                AuctionShard shard = shards.get(s);
+                double bid = shard.getBestBid();
+                if (bid < bestBid && !tried.get(i * shardCount + s) && fits(shard, free[s], demand[i])) {
+                    best = s;
+                    bestBid = bid;
+                }
+            }
+            if (best < 0) {
+                pending[deferred++] = i;
+                continue;
+            }
+            tried.set(i * shardCount + best);
+            for (int r = 0; r < R; r++) {
+                free[best][r] -= demand[i][r];
+            }
+            batches[best][batchSizes[best]++] = i;
+        }
+        return deferred;
+    }
+
+    private static boolean fits(AuctionShard shard, double[] free, double[] demand) {
+        for (int r = 0; r < R; r++) {
+            if (demand[r] > free[r] || demand[r] > shard.getMaxFree(RESOURCES[r])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
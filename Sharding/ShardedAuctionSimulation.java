@@ -0,0 +1,110 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Splits one fleet into a growing number of shards, each its own datacenter, and places
+ * the same VMs with a ShardedAuction for each shard count. One shard is the flat auction
+ * over every host. Reports throughput, routing time and misroutes per shard count,
+ * followed by the same figures as CSV.
+ *
+ * <pre>
+ * java ShardedAuctionSimulation [shard counts, e.g. 1,2,4,8] [VMs] [spec.properties|uniform|mixed]
+ * </pre>
+ */
+public class ShardedAuctionSimulation {
+
+    private static final double HOST_POWER_IDLE = 100;
+    private static final double HOST_POWER_FULL = 200;
+
+    public static void main(String[] args) {
+        Log.printLine("Starting ShardedAuctionSimulation...");
+
+        try {
+            int[] shardCounts = args.length > 0 ? parseCounts(args[0]) : new int[] {1, 2, 4, 8, 16};
+            int vmCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+            ScenarioSpec spec = args.length > 2 ? ScenarioRunner.loadSpec(args[2]) : ScenarioSpec.uniformFleet().withHostCount(1000);
+            spec = spec.withVmCount(vmCount).withCloudletCount(vmCount);
+
+            AuctionLog.startTrace();
+            List<ShardedResult> results = new ArrayList<>();
+            for (int shards : shardCounts) {
+                ShardedResult result = run(spec, shards);
+                Log.printLine(result.toString());
+                results.add(result);
+            }
+            AuctionLog.closeTrace();
+            Log.printLine(ShardedResult.CSV_HEADER);
+            for (ShardedResult result : results) {
+                Log.printLine(result.toCsv());
+            }
+            Log.printLine("ShardedAuctionSimulation finished!");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static ShardedResult run(ScenarioSpec spec, int shardCount) throws Exception {
+        CloudSim.init(1, Calendar.getInstance(), false);
+        ScenarioBuilder builder = new ScenarioBuilder(spec);
+        List<Host> hostList = builder.createHosts(ScenarioBuilder.HostKind.TOKEN_BIDDING);
+        PricingRule pricingRule = PricingRule.fromSystemProperties();
+
+        // Each shard is a contiguous run of hosts with a datacenter of its own
+        List<AuctionShard> shards = new ArrayList<>(shardCount);
+        List<EnergyMeter> meters = new ArrayList<>(shardCount);
+        int hosts = hostList.size();
+        for (int s = 0; s < shardCount; s++) {
+            List<Host> shardHosts = new ArrayList<>(hostList.subList(s * hosts / shardCount, (s + 1) * hosts / shardCount));
+            EnergyMeter energyMeter = new EnergyMeter(shardHosts, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+            AuctionVmAllocationPolicy policy = new AuctionVmAllocationPolicy(shardHosts);
+            ScenarioBuilder.createDatacenter("Datacenter_" + s, shardHosts, policy, energyMeter);
+            AuctionShard shard = new AuctionShard("Shard_" + s, shardHosts, policy);
+            shard.setPricingRule(pricingRule);
+            shards.add(shard);
+            meters.add(energyMeter);
+        }
+
+        DatacenterBroker broker = new DatacenterBroker("ShardedBroker");
+        List<Vm> vms = builder.createVms(broker.getId());
+        broker.submitGuestList(vms);
+        broker.submitCloudletList(builder.createCloudlets(broker.getId()));
+
+        ShardedResult result = new ShardedAuction(shards).run(vms);
+
+        double lastClock = CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+        double energy = 0;
+        for (EnergyMeter energyMeter : meters) {
+            energyMeter.finish(lastClock);
+            energy += energyMeter.getTotalEnergyKWh();
+        }
+
+        int completed = 0;
+        for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+            if (cloudlet.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {
+                completed++;
+            }
+        }
+        Log.printLine(String.format("%d shards: coordinator compared %d shard summaries per VM instead of %d host bids, "
+                + "%d cloudlets completed, energy %.4f kWh", shardCount, shardCount, hosts, completed, energy));
+        return result;
+    }
+
+    private static int[] parseCounts(String list) {
+        String[] parts = list.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,100 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Locale;
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * Outcome of one ShardedAuction run: where every VM went and how the time split between
+ * the coordinator and the shards.
+ *
+ * A round is one pass of routing followed by every shard's local auctions. A misroute is
+ * a VM a shard could not place although its summary said it might; the VM was routed
+ * again in the next round.
+ */
+public class ShardedResult {
+
+    public static final String CSV_HEADER = "shards,vms,placed,rounds,misroutes,coordinatorMs,wallMs,vmsPerSecond,misrouteRate";
+
+    private final int shards;
+    private final int vms;
+    private final long placed;
+    private final int rounds;
+    private final long misroutes;
+    private final long coordinatorNanos;
+    private final long wallNanos;
+    private final Host[] assignment;
+    private final int[] shardOf;
+
+    ShardedResult(int shards, int vms, long placed, int rounds, long misroutes, long coordinatorNanos, long wallNanos,
+            Host[] assignment, int[] shardOf) {
+        this.shards = shards;
+        this.vms = vms;
+        this.placed = placed;
+        this.rounds = rounds;
+        this.misroutes = misroutes;
+        this.coordinatorNanos = coordinatorNanos;
+        this.wallNanos = wallNanos;
+        this.assignment = assignment;
+        this.shardOf = shardOf;
+    }
+
+    /** assignment[i] is the host that won the i-th VM, or null. */
+    public Host[] getAssignment() {
+        return assignment;
+    }
+
+    /** Index of the shard that placed the i-th VM, -1 if none did. */
+    public int getShardOf(int vm) {
+        return shardOf[vm];
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public int getVms() {
+        return vms;
+    }
+
+    public long getPlaced() {
+        return placed;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getMisroutes() {
+        return misroutes;
+    }
+
+    /** Wall-clock time the coordinator spent routing, excluding the shards' auctions. */
+    public double getCoordinatorMillis() {
+        return coordinatorNanos / 1e6;
+    }
+
+    public double getWallMillis() {
+        return wallNanos / 1e6;
+    }
+
+    /** VMs decided per second of wall-clock time, placed or not. */
+    public double getThroughput() {
+        return wallNanos == 0 ? 0 : vms / (wallNanos / 1e9);
+    }
+
+    /** Misroutes per VM. */
+    public double getMisrouteRate() {
+        return vms == 0 ? 0 : (double) misroutes / vms;
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.3f,%.3f,%.1f,%.5f", shards, vms, placed, rounds, misroutes,
+                getCoordinatorMillis(), getWallMillis(), getThroughput(), getMisrouteRate());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d shards: %d of %d VMs placed in %.2f ms (%.0f VMs/s, %.2f ms routing), %d rounds, %d misroutes (%.2f%%)",
+                shards, placed, vms, getWallMillis(), getThroughput(), getCoordinatorMillis(), rounds, misroutes, 100 * getMisrouteRate());
+    }
+}
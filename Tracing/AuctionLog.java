@@ -0,0 +1,125 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Supplier;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * Level-gated logging and binary tracing for the placement code.
+ *
+ * Text messages go to CloudSim's Log and are built only when their level is enabled:
+ * either pass a Supplier, or check isEnabled once before a loop. INFO covers one line
+ * per placement decision, DEBUG adds one line per bid. The level starts from
+ * -Dauction.log (off, info, debug; default info).
+ *
+ * The record methods append structured events to an AuctionTraceWriter when one is
+ * open and cost a single field read otherwise. startTrace opens the file named by
+ * -Dauction.trace, if any.
+ */
+public final class AuctionLog {
+
+    public enum Level {
+        OFF, INFO, DEBUG
+    }
+
+    private static volatile Level level = Level.valueOf(System.getProperty("auction.log", "info").toUpperCase(Locale.ROOT));
+    private static volatile AuctionTraceWriter trace;
+
+    private AuctionLog() {
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.compareTo(level) <= 0;
+    }
+
+    public static void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            Log.printLine(message.get());
+        }
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            Log.printLine(message.get());
+        }
+    }
+
+    /** Opens the trace named by -Dauction.trace; does nothing if it is not set. */
+    public static void startTrace() throws IOException {
+        String file = System.getProperty("auction.trace");
+        if (file != null) {
+            startTrace(Paths.get(file));
+        }
+    }
+
+    public static synchronized void startTrace(Path file) throws IOException {
+        closeTrace();
+        trace = new AuctionTraceWriter(file);
+    }
+
+    /** Flushes and closes the open trace, if any. */
+    public static synchronized void closeTrace() throws IOException {
+        AuctionTraceWriter open = trace;
+        trace = null;
+        if (open != null) {
+            open.close();
+            Log.printLine(String.format("Auction trace: %d records written to %s", open.getRecords(), open.getFile()));
+        }
+    }
+
+    public static boolean isTracing() {
+        return trace != null;
+    }
+
+    /** Records written to the open trace so far, 0 if none is open. */
+    public static long getTraceRecords() {
+        AuctionTraceWriter writer = trace;
+        return writer == null ? 0 : writer.getRecords();
+    }
+
+    public static void recordBid(double time, int vmId, int hostId, double bid) {
+        AuctionTraceWriter writer = trace;
+        if (writer != null) {
+            writer.write(TraceEvent.BID, time, vmId, hostId, bid);
+        }
+    }
+
+    public static void recordWin(double time, int vmId, int hostId, double price, boolean onTieBreak) {
+        AuctionTraceWriter writer = trace;
+        if (writer != null) {
+            writer.write(onTieBreak ? TraceEvent.WIN_ON_TIE_BREAK : TraceEvent.WIN, time, vmId, hostId, price);
+        }
+    }
+
+    public static void recordNoWinner(double time, int vmId) {
+        AuctionTraceWriter writer = trace;
+        if (writer != null) {
+            writer.write(TraceEvent.NO_WINNER, time, vmId, -1, 0);
+        }
+    }
+
+    public static void recordTokens(double time, int vmId, int hostId, double tokens) {
+        AuctionTraceWriter writer = trace;
+        if (writer != null) {
+            writer.write(TraceEvent.TOKENS, time, vmId, hostId, tokens);
+        }
+    }
+
+    public static void recordMigration(double time, int vmId, int hostId, double seconds) {
+        AuctionTraceWriter writer = trace;
+        if (writer != null) {
+            writer.write(TraceEvent.MIGRATION, time, vmId, hostId, seconds);
+        }
+    }
+}
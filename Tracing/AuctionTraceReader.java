@@ -0,0 +1,120 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Reads a trace written by AuctionTraceWriter one event at a time. The current event's
+ * fields are available through the getters until the next call to next.
+ *
+ * <pre>
+ * java AuctionTraceReader trace.bin [--summary]
+ * </pre>
+ * prints every event as a line of text, or only the number of events of each kind.
+ */
+public class AuctionTraceReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private TraceEvent kind;
+    private double time;
+    private int vmId;
+    private int hostId;
+    private double value;
+
+    public AuctionTraceReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0);
+        if (!fill(AuctionTraceWriter.HEADER_BYTES) || buffer.getInt() != AuctionTraceWriter.MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not an auction trace");
+        }
+        int version = buffer.getInt();
+        if (version != AuctionTraceWriter.VERSION) {
+            channel.close();
+            throw new IOException(file + " has trace format version " + version + ", expected " + AuctionTraceWriter.VERSION);
+        }
+    }
+
+    /**
+     * Moves to the next event.
+     *
+     * @return false at the end of the trace
+     */
+    public boolean next() throws IOException {
+        if (!fill(AuctionTraceWriter.RECORD_BYTES)) {
+            return false;
+        }
+        kind = TraceEvent.of(buffer.get());
+        time = buffer.getDouble();
+        vmId = buffer.getInt();
+        hostId = buffer.getInt();
+        value = buffer.getDouble();
+        return true;
+    }
+
+    // Makes at least the given number of bytes available; false at the end of the file
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    public TraceEvent getKind() {
+        return kind;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public int getVmId() {
+        return vmId;
+    }
+
+    public int getHostId() {
+        return hostId;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean summary = args.length > 1 && "--summary".equals(args[1]);
+        long[] counts = new long[TraceEvent.values().length];
+        try (AuctionTraceReader reader = new AuctionTraceReader(Paths.get(args[0]))) {
+            while (reader.next()) {
+                counts[reader.getKind().ordinal()]++;
+                if (!summary) {
+                    System.out.println(String.format(Locale.ROOT, "%.2f %s VM #%d Host #%d %.4f", reader.getTime(),
+                            reader.getKind(), reader.getVmId(), reader.getHostId(), reader.getValue()));
+                }
+            }
+        }
+        for (TraceEvent kind : TraceEvent.values()) {
+            System.out.println(kind + ": " + counts[kind.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes auction events to a binary file without blocking the simulation on I/O.
+ *
+ * Events go into a ring of fixed-size slots held in primitive arrays. A daemon thread
+ * copies them from the ring into a direct buffer and writes that to the file whenever
+ * it fills or the ring runs empty. The caller only blocks if the ring is full, and that
+ * is counted as a stall. There is one producer: write may be called from one thread at
+ * a time.
+ *
+ * The file starts with the magic number and the format version, followed by
+ * RECORD_BYTES per event: kind (byte), time (double), VM id (int), host id (int), value
+ * (double). AuctionTraceReader reads it back.
+ */
+public class AuctionTraceWriter implements Closeable {
+
+    static final int MAGIC = 0x41545243; // "ATRC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 1 + 8 + 4 + 4 + 8;
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int mask;
+    private final byte[] kinds;
+    private final double[] times;
+    private final int[] vmIds;
+    private final int[] hostIds;
+    private final double[] values;
+
+    private final AtomicLong head = new AtomicLong(); // next slot to fill
+    private final AtomicLong tail = new AtomicLong(); // next slot to flush
+    private final Thread flusher;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private long records;
+    private long stalls;
+
+    public AuctionTraceWriter(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity events the ring holds; rounded up to a power of two
+     */
+    public AuctionTraceWriter(Path file, int capacity) throws IOException {
+        int slots = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.file = file;
+        this.mask = slots - 1;
+        this.kinds = new byte[slots];
+        this.times = new double[slots];
+        this.vmIds = new int[slots];
+        this.hostIds = new int[slots];
+        this.values = new double[slots];
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        this.flusher = new Thread(this::flushLoop, "auction-trace");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void write(TraceEvent kind, double time, int vmId, int hostId, double value) {
+        long slot = head.get();
+        while (slot - tail.get() > mask) {
+            if (failure != null) {
+                throw new UncheckedIOException("Writing the auction trace failed", failure);
+            }
+            stalls++;
+            LockSupport.unpark(flusher);
+            Thread.yield();
+        }
+        int i = (int) (slot & mask);
+        kinds[i] = (byte) kind.ordinal();
+        times[i] = time;
+        vmIds[i] = vmId;
+        hostIds[i] = hostId;
+        values[i] = value;
+        head.lazySet(slot + 1);
+        records++;
+    }
+
+    private void flushLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try {
+            while (true) {
+                long from = tail.get();
+                long to = head.get();
+                if (from == to) {
+                    if (closed && head.get() == from) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                for (long slot = from; slot < to; slot++) {
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        drain(buffer);
+                    }
+                    int i = (int) (slot & mask);
+                    buffer.put(kinds[i]).putDouble(times[i]).putInt(vmIds[i]).putInt(hostIds[i]).putDouble(values[i]);
+                    tail.lazySet(slot + 1);
+                }
+                drain(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Events written so far. */
+    public long getRecords() {
+        return records;
+    }
+
+    /** Times write found the ring full and had to wait for the flusher. */
+    public long getStalls() {
+        return stalls;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** Waits until every event is on disk, then closes the file. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
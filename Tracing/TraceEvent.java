@@ -0,0 +1,26 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Kinds of records in a binary auction trace. Each record carries a simulation time, a
+ * VM id, a host id and one value whose meaning depends on the kind.
+ */
+public enum TraceEvent {
+    /** A host's bid for a VM; value is the bid. */
+    BID,
+    /** The host won the VM; value is the winning bid. */
+    WIN,
+    /** The host won the VM on the tie-break; value is the winning bid. */
+    WIN_ON_TIE_BREAK,
+    /** No host won the VM; host is -1. */
+    NO_WINNER,
+    /** Tokens the host paid for the VM; negative for a refund. */
+    TOKENS,
+    /** The VM started migrating to the host; value is the migration time. */
+    MIGRATION;
+
+    private static final TraceEvent[] VALUES = values();
+
+    static TraceEvent of(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,126 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams the Bitbrains GWA-T-12 traces, where every file is the time series of one VM:
+ * Timestamp [s]; CPU cores; CPU capacity provisioned [MHz]; CPU usage [MHz];
+ * CPU usage [%]; Memory capacity provisioned [KB]; ...
+ *
+ * Only the first row of each file is read up front to order the VMs by start time.
+ * A file's full series is read when its VM is requested, so at most one series is
+ * held by the source at a time.
+ */
+public class BitbrainsTraceSource implements WorkloadSource {
+
+    private static final long DEFAULT_BW = 1000;
+    private static final long DEFAULT_SIZE = 10000;
+    private static final double DEFAULT_INTERVAL = 300;
+
+    private final Path[] files;
+    private int nextFile;
+
+    public BitbrainsTraceSource(Path directory) throws IOException {
+        List<Path> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{csv,csv.gz}")) {
+            for (Path file : stream) {
+                found.add(file);
+            }
+        }
+        int n = found.size();
+        Path[] unsorted = found.toArray(new Path[n]);
+        double[] starts = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = firstTimestamp(unsorted[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Double.compare(starts[a], starts[b]);
+            return cmp != 0 ? cmp : unsorted[a].getFileName().compareTo(unsorted[b].getFileName());
+        });
+        files = new Path[n];
+        for (int i = 0; i < n; i++) {
+            files[i] = unsorted[order[i]];
+        }
+    }
+
+    private static double firstTimestamp(Path file) throws IOException {
+        try (TraceLineReader reader = new TraceLineReader(file, ';')) {
+            while (reader.nextLine()) {
+                double time = reader.getDouble(0);
+                if (!Double.isNaN(time)) {
+                    return time;
+                }
+            }
+        }
+        return Double.MAX_VALUE;
+    }
+
+    @Override
+    public WorkloadItem next() throws IOException {
+        while (nextFile < files.length) {
+            Path file = files[nextFile++];
+            WorkloadItem item = readVm(file);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private WorkloadItem readVm(Path file) throws IOException {
+        float[] series = new float[256];
+        int samples = 0;
+        double first = Double.NaN;
+        double last = Double.NaN;
+        int cores = 1;
+        double capacity = 0;
+        double memoryKb = 0;
+        try (TraceLineReader reader = new TraceLineReader(file, ';')) {
+            while (reader.nextLine()) {
+                double time = reader.getDouble(0);
+                if (Double.isNaN(time)) {
+                    continue; // header
+                }
+                if (samples == 0) {
+                    first = time;
+                    cores = Math.max(1, (int) reader.getLong(1));
+                    capacity = reader.getDouble(2);
+                    memoryKb = reader.getDouble(5);
+                }
+                last = time;
+                if (samples == series.length) {
+                    series = Arrays.copyOf(series, samples * 2);
+                }
+                double usage = reader.getDouble(4) / 100;
+                series[samples++] = (float) (Double.isNaN(usage) ? 0 : Math.min(1, Math.max(0, usage)));
+            }
+        }
+        if (samples == 0) {
+            return null;
+        }
+        double duration = Math.max(last - first, DEFAULT_INTERVAL);
+        double interval = samples > 1 ? (last - first) / (samples - 1) : DEFAULT_INTERVAL;
+        double mips = capacity > 0 ? capacity / cores : 1000;
+        int ram = Math.max(1, (int) Math.ceil(memoryKb / 1024));
+        return new WorkloadItem(first, cores, mips, ram, DEFAULT_BW, DEFAULT_SIZE, duration,
+                Arrays.copyOf(series, samples), interval);
+    }
+
+    /** Number of VM files found in the trace directory. */
+    public int size() {
+        return files.length;
+    }
+
+    @Override
+    public void close() {
+        nextFile = files.length;
+    }
+}
@@ -0,0 +1,82 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams workload items from a one-row-per-request trace described by a TraceFormat.
+ * Rows are parsed only when the next item is requested. Rows that fail the format's
+ * filter, or have no usable submit time, are skipped and counted.
+ */
+public class CsvTraceSource implements WorkloadSource {
+
+    private static final long DEFAULT_BW = 1000;
+    private static final long DEFAULT_SIZE = 10000;
+    private static final int DEFAULT_RAM = 512;
+
+    private final TraceFormat format;
+    private final TraceLineReader reader;
+    private long skippedRows;
+
+    public CsvTraceSource(Path file, TraceFormat format) throws IOException {
+        this.format = format;
+        this.reader = new TraceLineReader(file, format.getDelimiter());
+        for (int i = 0; i < format.getHeaderLines(); i++) {
+            reader.nextLine();
+        }
+    }
+
+    @Override
+    public WorkloadItem next() throws IOException {
+        while (reader.nextLine()) {
+            if (format.getFilterColumn() >= 0 && reader.getDouble(format.getFilterColumn()) != format.getFilterValue()) {
+                continue;
+            }
+            double submit = reader.getDouble(format.getSubmitColumn()) * format.getTimeScale();
+            if (Double.isNaN(submit)) {
+                skippedRows++;
+                continue;
+            }
+            double duration = format.getDefaultDuration();
+            if (format.getEndColumn() >= 0) {
+                double end = reader.getDouble(format.getEndColumn()) * format.getTimeScale();
+                if (!Double.isNaN(end) && end > submit) {
+                    duration = end - submit;
+                }
+            }
+            int pes = 1;
+            if (format.getCoresColumn() >= 0) {
+                double cores = reader.getDouble(format.getCoresColumn()) * format.getCoresScale();
+                if (!Double.isNaN(cores)) {
+                    pes = Math.max(1, (int) Math.ceil(cores));
+                }
+            }
+            int ram = DEFAULT_RAM;
+            if (format.getMemoryColumn() >= 0) {
+                double memory = reader.getDouble(format.getMemoryColumn()) * format.getMemoryScale();
+                if (!Double.isNaN(memory)) {
+                    ram = Math.max(1, (int) Math.ceil(memory));
+                }
+            }
+            float cpu = 1f;
+            if (format.getCpuColumn() >= 0) {
+                double value = reader.getDouble(format.getCpuColumn()) * format.getCpuScale();
+                if (!Double.isNaN(value)) {
+                    cpu = (float) Math.min(1, Math.max(0, value));
+                }
+            }
+            return new WorkloadItem(submit, pes, format.getMipsPerCore(), ram, DEFAULT_BW, DEFAULT_SIZE, duration,
+                    new float[] {cpu}, 0);
+        }
+        return null;
+    }
+
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
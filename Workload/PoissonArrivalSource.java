@@ -0,0 +1,93 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Synthetic open-loop arrivals: VM requests with exponentially distributed gaps at a
+ * fixed rate, each drawn from a scenario's VM templates by weight, with exponentially
+ * distributed lifetimes. Nothing is precomputed, so any number of arrivals can be
+ * generated in constant memory. The generator state, clock and count can be saved and
+ * restored, so a run continued from a checkpoint draws the same arrivals.
+ */
+public class PoissonArrivalSource implements ResumableSource {
+
+    private final SeededRandom random;
+    private final double ratePerSecond;
+    private final long count;
+    private final double meanDuration;
+    private final List<VmTemplate> templates;
+    private final double[] cumulativeWeight;
+
+    private double clock;
+    private long generated;
+
+    /**
+     * @param spec supplies the VM templates and the seed
+     * @param ratePerSecond mean arrivals per simulated second
+     * @param count number of arrivals to generate
+     * @param meanDuration mean VM lifetime in seconds
+     */
+    public PoissonArrivalSource(ScenarioSpec spec, double ratePerSecond, long count, double meanDuration) {
+        this.random = new SeededRandom(spec.getSeed());
+        this.ratePerSecond = ratePerSecond;
+        this.count = count;
+        this.meanDuration = meanDuration;
+        this.templates = spec.getVmTemplates();
+        this.cumulativeWeight = new double[templates.size()];
+        double sum = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            sum += templates.get(i).getWeight();
+            cumulativeWeight[i] = sum;
+        }
+    }
+
+    @Override
+    public WorkloadItem next() {
+        if (generated == count) {
+            return null;
+        }
+        if (generated > 0) {
+            clock += exponential(1 / ratePerSecond);
+        }
+        generated++;
+        VmTemplate template = pick();
+        return new WorkloadItem(clock, template.getPes(), template.getMips(), template.getRam(), template.getBw(),
+                template.getSize(), exponential(meanDuration), new float[] {1f}, 0);
+    }
+
+    private VmTemplate pick() {
+        double target = random.nextDouble() * cumulativeWeight[cumulativeWeight.length - 1];
+        for (int i = 0; i < cumulativeWeight.length; i++) {
+            if (target < cumulativeWeight[i]) {
+                return templates.get(i);
+            }
+        }
+        return templates.get(templates.size() - 1);
+    }
+
+    private double exponential(double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        out.writeLong(random.getState());
+        out.writeDouble(clock);
+        out.writeLong(generated);
+    }
+
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        random.setState(in.readLong());
+        clock = in.readDouble();
+        generated = in.readLong();
+    }
+
+    @Override
+    public void close() {
+        generated = count;
+    }
+}
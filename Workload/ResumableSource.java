@@ -0,0 +1,18 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A workload source that can save its position and continue from a saved position, so
+ * a checkpointed simulation sees the same arrivals after it is restored.
+ */
+public interface ResumableSource extends WorkloadSource {
+
+    /** Writes everything needed to continue producing the same items. */
+    void saveState(DataOutput out) throws IOException;
+
+    /** Continues from a state written by saveState of a source built with the same arguments. */
+    void restoreState(DataInput in) throws IOException;
+}
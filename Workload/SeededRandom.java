@@ -0,0 +1,48 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Random;
+
+/**
+ * A java.util.Random whose generator state can be read and set, so a stream of draws
+ * can be checkpointed and continued exactly. It runs the same 48-bit linear congruential
+ * generator as Random, so new SeededRandom(seed) draws the same values as new
+ * Random(seed).
+ *
+ * Only the generator state is captured; a second nextGaussian value cached by Random is
+ * not, so callers that checkpoint should not use nextGaussian.
+ */
+public class SeededRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public SeededRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /** The current generator state; setState with it continues the same sequence. */
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
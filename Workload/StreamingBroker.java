@@ -0,0 +1,330 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * A broker that feeds a WorkloadSource into the simulation as simulated time advances.
+ *
+ * Instead of submitting a VM and cloudlet list before the simulation starts, the broker
+ * wakes itself up at the submit time of the next trace item, creates a VM and a cloudlet
+ * for every item that is due, and reads on. When a cloudlet returns its VM is destroyed
+ * and both are forgotten, keeping only summary counters. At most maxInFlight items are
+ * alive at once; when that limit is reached the trace is not read further until
+ * cloudlets complete, so memory stays bounded for traces of any length.
+ *
+ * Trace times are shifted so that the first item is submitted at simulation time 0.
+ * Streamed VMs and cloudlets are not added to the broker's guest or cloudlet lists.
+ */
+public class StreamingBroker extends DatacenterBroker {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10000;
+
+    private final WorkloadSource source;
+    private final int datacenterId;
+    private final int maxInFlight;
+
+    private final Map<Integer, InFlight> inFlight = new HashMap<>();
+    private WorkloadItem pending;
+    private double traceOrigin = Double.NaN;
+    private boolean fetchScheduled;
+    private boolean exhausted;
+    private int nextId;
+
+    private long submitted;
+    private long vmsFailed;
+    private long completed;
+    private double totalResponseTime;
+    private double lastFinishTime;
+    private int peakInFlight;
+
+    public StreamingBroker(String name, WorkloadSource source, int datacenterId) throws Exception {
+        this(name, source, datacenterId, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public StreamingBroker(String name, WorkloadSource source, int datacenterId, int maxInFlight) throws Exception {
+        super(name);
+        this.source = source;
+        this.datacenterId = datacenterId;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void startEntity() {
+        super.startEntity();
+        scheduleFetch(0);
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        if (ev.getTag() == WorkloadTags.FETCH_WORKLOAD) {
+            fetchScheduled = false;
+            fetch();
+        } else if (ev.getTag() == CloudActionTags.VM_CREATE_ACK && isStreamed(ev.getData())) {
+            int[] data = (int[]) ev.getData();
+            processStreamedVmCreated(data[1], data[2] == CloudSimTags.TRUE);
+        } else if (ev.getTag() == CloudActionTags.CLOUDLET_RETURN && ev.getData() instanceof Cloudlet
+                && inFlight.containsKey(((Cloudlet) ev.getData()).getCloudletId())) {
+            processStreamedCloudletReturn((Cloudlet) ev.getData());
+        } else {
+            super.processEvent(ev);
+        }
+    }
+
+    private boolean isStreamed(Object data) {
+        return data instanceof int[] && ((int[]) data).length > 2 && inFlight.containsKey(((int[]) data)[1]);
+    }
+
+    /**
+     * Submits every trace item that is due, stopping at the in-flight limit, and schedules
+     * the next wake-up at the submit time of the first item that is not due yet.
+     */
+    private void fetch() {
+        double now = CloudSim.clock();
+        try {
+            while (inFlight.size() < maxInFlight) {
+                if (pending == null && !exhausted) {
+                    pending = source.next();
+                    if (pending == null) {
+                        exhausted = true;
+                        source.close();
+                    } else if (Double.isNaN(traceOrigin)) {
+                        traceOrigin = pending.getSubmitTime();
+                    }
+                }
+                if (pending == null) {
+                    return;
+                }
+                double due = pending.getSubmitTime() - traceOrigin;
+                if (due > now) {
+                    scheduleFetch(due - now);
+                    return;
+                }
+                submit(pending, now);
+                pending = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the workload trace failed", e);
+        }
+    }
+
+    private void submit(WorkloadItem item, double now) {
+        int id = nextId++;
+        Vm vm = newVm(id, item);
+        adopt(vm, newCloudlet(id, item, item.getLength(), now), item, now);
+        submitted++;
+        placeVm(vm);
+    }
+
+    /** The VM a trace item asks for. */
+    protected Vm newVm(int id, WorkloadItem item) {
+        return new Vm(id, getId(), item.getMips(), item.getPes(), item.getRam(), item.getBw(), item.getSize(),
+                "Xen", new CloudletSchedulerTimeShared());
+    }
+
+    /**
+     * The cloudlet running a trace item's work on its VM.
+     *
+     * @param length cloudlet length, the item's full length unless it resumes part-way
+     * @param start simulation time of the first sample of the item's CPU series
+     */
+    protected Cloudlet newCloudlet(int id, WorkloadItem item, long length, double start) {
+        UtilizationModel cpuModel = new TraceUtilizationModel(item.getCpuSeries(), item.getSeriesInterval(), start);
+        UtilizationModel full = new UtilizationModelFull();
+        Cloudlet cloudlet = new Cloudlet(id, length, item.getPes(), 300, 300, cpuModel, full, full);
+        cloudlet.setUserId(getId());
+        cloudlet.setGuestId(id);
+        return cloudlet;
+    }
+
+    /**
+     * Tracks a streamed VM and its cloudlet until the cloudlet returns. Used for new
+     * arrivals and for VMs restored from a checkpoint, which are not counted as submitted.
+     */
+    protected void adopt(Vm vm, Cloudlet cloudlet, WorkloadItem item, double submitTime) {
+        inFlight.put(vm.getId(), new InFlight(vm, cloudlet, item, submitTime));
+        peakInFlight = Math.max(peakInFlight, inFlight.size());
+    }
+
+    /**
+     * Continues a stream saved earlier. The trace origin is shifted by the simulation
+     * time the stream had reached, since this run's clock starts again at 0.
+     *
+     * @param traceOrigin trace time that maps to this run's time 0, NaN if no item was read yet
+     * @param nextVmId id of the next streamed VM
+     * @param pendingItem item read from the source but not yet due, or null
+     */
+    protected void resumeStream(double traceOrigin, int nextVmId, WorkloadItem pendingItem) {
+        this.traceOrigin = traceOrigin;
+        this.nextId = nextVmId;
+        this.pending = pendingItem;
+    }
+
+    /**
+     * Decides where a newly arrived VM goes. The default leaves the choice to the
+     * datacenter's allocation policy; subclasses may place it themselves, possibly
+     * later, and must end with either createVm or rejectVm.
+     */
+    protected void placeVm(Vm vm) {
+        createVm(vm);
+    }
+
+    /** Asks the datacenter to create a streamed VM. */
+    protected void createVm(Vm vm) {
+        sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+    }
+
+    /**
+     * Told whether the datacenter created a streamed VM, before its cloudlet is submitted
+     * or the VM is rejected.
+     */
+    protected void vmCreated(Vm vm, boolean created) {
+    }
+
+    /** Drops a streamed VM that could not be placed. */
+    protected void rejectVm(Vm vm) {
+        vmsFailed++;
+        inFlight.remove(vm.getId());
+        resumeFetching();
+    }
+
+    /** Simulation time at which a streamed VM was requested. */
+    protected double getArrivalTime(Vm vm) {
+        return inFlight.get(vm.getId()).submitTime;
+    }
+
+    protected int getDatacenterId() {
+        return datacenterId;
+    }
+
+    protected WorkloadSource getSource() {
+        return source;
+    }
+
+    /** Streamed VMs alive now, in id order. */
+    protected List<Vm> getInFlightVms() {
+        List<Vm> vms = new ArrayList<>(inFlight.size());
+        for (InFlight entry : inFlight.values()) {
+            vms.add(entry.vm);
+        }
+        vms.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        return vms;
+    }
+
+    protected Cloudlet getCloudlet(Vm vm) {
+        return inFlight.get(vm.getId()).cloudlet;
+    }
+
+    protected WorkloadItem getWorkloadItem(Vm vm) {
+        return inFlight.get(vm.getId()).item;
+    }
+
+    /** The item read from the source that is not due yet, or null. */
+    protected WorkloadItem getPendingItem() {
+        return pending;
+    }
+
+    /** Trace time that maps to simulation time 0, NaN before the first item is read. */
+    protected double getTraceOrigin() {
+        return traceOrigin;
+    }
+
+    protected int getNextVmId() {
+        return nextId;
+    }
+
+    private void processStreamedVmCreated(int vmId, boolean created) {
+        InFlight entry = inFlight.get(vmId);
+        vmCreated(entry.vm, created);
+        if (!created) {
+            AuctionLog.info(() -> String.format("%.2f: %s: Streamed VM #%d could not be created", CloudSim.clock(), getName(), vmId));
+            rejectVm(entry.vm);
+            return;
+        }
+        sendNow(datacenterId, CloudActionTags.CLOUDLET_SUBMIT, entry.cloudlet);
+    }
+
+    private void processStreamedCloudletReturn(Cloudlet cloudlet) {
+        InFlight entry = inFlight.remove(cloudlet.getCloudletId());
+        if (cloudlet.getStatus() == Cloudlet.CloudletStatus.SUCCESS) {
+            completed++;
+            totalResponseTime += cloudlet.getFinishTime() - entry.submitTime;
+            lastFinishTime = Math.max(lastFinishTime, cloudlet.getFinishTime());
+        }
+        sendNow(datacenterId, CloudActionTags.VM_DESTROY, entry.vm);
+        resumeFetching();
+    }
+
+    private void resumeFetching() {
+        if (!fetchScheduled && inFlight.size() < maxInFlight && (pending != null || !exhausted)) {
+            double due = pending == null ? 0 : Math.max(0, pending.getSubmitTime() - traceOrigin - CloudSim.clock());
+            scheduleFetch(due);
+        }
+    }
+
+    private void scheduleFetch(double delay) {
+        if (!fetchScheduled) {
+            fetchScheduled = true;
+            schedule(getId(), delay, WorkloadTags.FETCH_WORKLOAD);
+        }
+    }
+
+    /** Trace items turned into VM requests so far. */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /** Streamed VMs the datacenter could not place. */
+    public long getVmsFailed() {
+        return vmsFailed;
+    }
+
+    /** Streamed cloudlets that finished successfully. */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /** Mean time from VM request to cloudlet completion. */
+    public double getMeanResponseTime() {
+        return completed == 0 ? 0 : totalResponseTime / completed;
+    }
+
+    public double getLastFinishTime() {
+        return lastFinishTime;
+    }
+
+    /** Largest number of items alive at the same time. */
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    private static class InFlight {
+
+        final Vm vm;
+        final Cloudlet cloudlet;
+        final WorkloadItem item;
+        final double submitTime;
+
+        InFlight(Vm vm, Cloudlet cloudlet, WorkloadItem item, double submitTime) {
+            this.vm = vm;
+            this.cloudlet = cloudlet;
+            this.item = item;
+            this.submitTime = submitTime;
+        }
+    }
+}
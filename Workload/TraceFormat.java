@@ -0,0 +1,144 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * Column layout and units of a one-row-per-request CSV trace.
+ *
+ * Column indices are zero based; -1 means the trace does not have the column and the
+ * matching default is used. Scales convert the raw values to seconds, cores, MB and
+ * utilization fractions.
+ */
+public class TraceFormat {
+
+    private final String name;
+    private final char delimiter;
+    private final int headerLines;
+    private final int submitColumn;
+    private final int endColumn;
+    private final double timeScale;
+    private final double defaultDuration;
+    private final int coresColumn;
+    private final double coresScale;
+    private final int memoryColumn;
+    private final double memoryScale;
+    private final int cpuColumn;
+    private final double cpuScale;
+    private final int filterColumn;
+    private final double filterValue;
+    private final double mipsPerCore;
+
+    public TraceFormat(String name, char delimiter, int headerLines, int submitColumn, int endColumn, double timeScale,
+            double defaultDuration, int coresColumn, double coresScale, int memoryColumn, double memoryScale,
+            int cpuColumn, double cpuScale, int filterColumn, double filterValue, double mipsPerCore) {
+        this.name = name;
+        this.delimiter = delimiter;
+        this.headerLines = headerLines;
+        this.submitColumn = submitColumn;
+        this.endColumn = endColumn;
+        this.timeScale = timeScale;
+        this.defaultDuration = defaultDuration;
+        this.coresColumn = coresColumn;
+        this.coresScale = coresScale;
+        this.memoryColumn = memoryColumn;
+        this.memoryScale = memoryScale;
+        this.cpuColumn = cpuColumn;
+        this.cpuScale = cpuScale;
+        this.filterColumn = filterColumn;
+        this.filterValue = filterValue;
+        this.mipsPerCore = mipsPerCore;
+    }
+
+    /**
+     * Azure public dataset vmtable.csv: vmid, subscriptionid, deploymentid, vmcreated,
+     * vmdeleted, maxcpu, avgcpu, p95maxcpu, vmcategory, vmcorecountbucket, vmmemorybucket.
+     * Times are seconds, CPU is percent and memory buckets are GB.
+     */
+    public static TraceFormat azureVmTable() {
+        return new TraceFormat("azure", ',', 0, 3, 4, 1, 3600, 9, 1, 10, 1024, 6, 0.01, -1, 0, 1000);
+    }
+
+    /**
+     * Google cluster-data 2011 task_events: time (microseconds), missing info, job id,
+     * task index, machine id, event type, user, scheduling class, priority, CPU request,
+     * memory request, disk request, different machines. Only SUBMIT events (type 0) are
+     * read. Requests are normalized to the largest machine, taken as 32 cores and 64 GB.
+     * The table has no task lifetimes, so every task runs for the default duration.
+     */
+    public static TraceFormat googleTaskEvents() {
+        return new TraceFormat("google", ',', 0, 0, -1, 1e-6, 300, 9, 32, 10, 65536, -1, 1, 5, 0, 1000);
+    }
+
+    public static TraceFormat byName(String name) {
+        switch (name) {
+            case "azure":
+                return azureVmTable();
+            case "google":
+                return googleTaskEvents();
+            default:
+                throw new IllegalArgumentException("Unknown trace format " + name + "; expected azure or google");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    public int getSubmitColumn() {
+        return submitColumn;
+    }
+
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    public double getDefaultDuration() {
+        return defaultDuration;
+    }
+
+    public int getCoresColumn() {
+        return coresColumn;
+    }
+
+    public double getCoresScale() {
+        return coresScale;
+    }
+
+    public int getMemoryColumn() {
+        return memoryColumn;
+    }
+
+    public double getMemoryScale() {
+        return memoryScale;
+    }
+
+    public int getCpuColumn() {
+        return cpuColumn;
+    }
+
+    public double getCpuScale() {
+        return cpuScale;
+    }
+
+    public int getFilterColumn() {
+        return filterColumn;
+    }
+
+    public double getFilterValue() {
+        return filterValue;
+    }
+
+    public double getMipsPerCore() {
+        return mipsPerCore;
+    }
+}
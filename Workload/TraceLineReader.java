@@ -0,0 +1,214 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a delimited text trace one line at a time without materializing it.
+ *
+ * Bytes are pulled through a fixed direct buffer and the current line is copied into a
+ * reusable byte array whose field boundaries are recorded as offsets. Fields are parsed
+ * straight from the bytes on request, so columns that are never asked for cost nothing
+ * and no String is created per line. Files ending in .gz are decompressed on the fly.
+ */
+public class TraceLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FIELDS = 64;
+
+    private final ReadableByteChannel channel;
+    private final byte delimiter;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean endOfInput;
+
+    private byte[] line = new byte[1024];
+    private int lineLength;
+    private final int[] fieldStart = new int[MAX_FIELDS + 1];
+    private int fieldCount;
+    private long lineNumber;
+
+    public TraceLineReader(Path file, char delimiter) throws IOException {
+        this(open(file), delimiter);
+    }
+
+    public TraceLineReader(ReadableByteChannel channel, char delimiter) {
+        this.channel = channel;
+        this.delimiter = (byte) delimiter;
+        buffer.flip();
+    }
+
+    private static ReadableByteChannel open(Path file) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return Channels.newChannel(new GZIPInputStream(Channels.newInputStream(fileChannel), BUFFER_SIZE));
+        }
+        return fileChannel;
+    }
+
+    /**
+     * Advances to the next non-empty line.
+     *
+     * @return false at the end of the input
+     */
+    public boolean nextLine() throws IOException {
+        while (readLine()) {
+            if (lineLength > 0) {
+                split();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean sawAny = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (endOfInput) {
+                    return sawAny;
+                }
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    endOfInput = true;
+                    return sawAny;
+                }
+                continue;
+            }
+            sawAny = true;
+            byte b = buffer.get();
+            if (b == '\n') {
+                lineNumber++;
+                return true;
+            }
+            if (b == '\r') {
+                continue;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+    }
+
+    private void split() {
+        fieldCount = 0;
+        fieldStart[0] = 0;
+        for (int i = 0; i < lineLength && fieldCount < MAX_FIELDS; i++) {
+            if (line[i] == delimiter) {
+                fieldStart[++fieldCount] = i + 1;
+            }
+        }
+        fieldCount++;
+        fieldStart[fieldCount] = lineLength + 1;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Parses a numeric field. Leading blanks and bucket markers such as "&gt;24" are
+     * skipped; a missing, empty or malformed field, such as "12x" or "n/a", is NaN.
+     */
+    public double getDouble(int field) {
+        if (field < 0 || field >= fieldCount) {
+            return Double.NaN;
+        }
+        int i = fieldStart[field];
+        int end = fieldStart[field + 1] - 1;
+        while (i < end && !isNumberStart(line[i])) {
+            if (isLetter(line[i])) {
+                return Double.NaN; // text such as "n/a", not a bucket marker
+            }
+            i++;
+        }
+        while (end > i && (line[end - 1] == ' ' || line[end - 1] == '\t')) {
+            end--;
+        }
+        if (i == end) {
+            return Double.NaN;
+        }
+        boolean negative = line[i] == '-';
+        if (negative || line[i] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        int start = i;
+        for (; i < end; i++) {
+            byte b = line[i];
+            if (b >= '0' && b <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fraction) {
+                        scale++;
+                    }
+                } else if (!fraction) {
+                    scale--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                // Exponents and anything unusual take the slow path.
+                try {
+                    return Double.parseDouble(getString(field).trim().replaceAll("^[^0-9+\\-.]+", ""));
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        if (i == start) {
+            return Double.NaN;
+        }
+        double value = scale >= 0 ? mantissa / Math.pow(10, scale) : mantissa * Math.pow(10, -scale);
+        return negative ? -value : value;
+    }
+
+    public long getLong(int field) {
+        double value = getDouble(field);
+        return Double.isNaN(value) ? 0 : (long) value;
+    }
+
+    /**
+     * The raw text of a field. Allocates; meant for identifiers and diagnostics.
+     */
+    public String getString(int field) {
+        if (field < 0 || field >= fieldCount) {
+            return "";
+        }
+        int start = fieldStart[field];
+        return new String(line, start, fieldStart[field + 1] - 1 - start, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,65 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Calendar;
+import java.util.List;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * Replays a cluster trace through a StreamingBroker on a fleet built from a scenario.
+ *
+ * <pre>
+ * java TraceSimulation &lt;azure|google|bitbrains&gt; &lt;trace file or directory&gt; [spec.properties|uniform|mixed] [maxInFlight]
+ * </pre>
+ */
+public class TraceSimulation {
+
+    private static final double HOST_POWER_IDLE = 100;
+    private static final double HOST_POWER_FULL = 200;
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: TraceSimulation <azure|google|bitbrains> <trace> [spec.properties|uniform|mixed] [maxInFlight]");
+            System.exit(2);
+        }
+        Log.printLine("Starting TraceSimulation...");
+
+        try {
+            CloudSim.init(1, Calendar.getInstance(), false);
+            ScenarioSpec spec = ScenarioRunner.loadSpec(args.length > 2 ? args[2] : "mixed");
+            int maxInFlight = args.length > 3 ? Integer.parseInt(args[3]) : StreamingBroker.DEFAULT_MAX_IN_FLIGHT;
+
+            List<Host> hostList = new ScenarioBuilder(spec).createHosts(ScenarioBuilder.HostKind.PLAIN);
+            EnergyMeter energyMeter = new EnergyMeter(hostList, new LinearPowerModel(HOST_POWER_IDLE, HOST_POWER_FULL));
+            MeteredDatacenter datacenter = ScenarioBuilder.createDatacenter("Datacenter_0", hostList,
+                    new VmAllocationPolicySimple(hostList), energyMeter);
+
+            StreamingBroker broker = new StreamingBroker("StreamingBroker", openSource(args[0], Paths.get(args[1])),
+                    datacenter.getId(), maxInFlight);
+
+            double lastClock = CloudSim.startSimulation();
+            CloudSim.stopSimulation();
+
+            Log.printLine(String.format("Trace items submitted: %d, VMs failed: %d, cloudlets completed: %d",
+                    broker.getSubmitted(), broker.getVmsFailed(), broker.getCompleted()));
+            Log.printLine(String.format("Mean response time: %.2f s, last finish: %.2f s, peak in flight: %d",
+                    broker.getMeanResponseTime(), broker.getLastFinishTime(), broker.getPeakInFlight()));
+            energyMeter.finish(lastClock);
+            energyMeter.printReport();
+            Log.printLine("TraceSimulation finished!");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    static WorkloadSource openSource(String format, Path trace) throws Exception {
+        if ("bitbrains".equals(format)) {
+            return new BitbrainsTraceSource(trace);
+        }
+        return new CsvTraceSource(trace, TraceFormat.byName(format));
+    }
+}
@@ -0,0 +1,37 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.UtilizationModel;
+
+/**
+ * Replays a sampled utilization series. Each sample holds until the next one; times
+ * before the start or after the last sample use the first or last sample.
+ */
+public class TraceUtilizationModel implements UtilizationModel {
+
+    private final float[] samples;
+    private final double interval;
+    private final double start;
+
+    /**
+     * @param samples utilization fractions in [0, 1]
+     * @param interval seconds between samples
+     * @param start simulation time of the first sample
+     */
+    public TraceUtilizationModel(float[] samples, double interval, double start) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("A utilization series needs at least one sample");
+        }
+        this.samples = samples;
+        this.interval = interval;
+        this.start = start;
+    }
+
+    @Override
+    public double getUtilization(double time) {
+        if (samples.length == 1 || time <= start || interval <= 0) {
+            return samples[0];
+        }
+        long index = (long) ((time - start) / interval);
+        return samples[(int) Math.min(index, samples.length - 1)];
+    }
+}
@@ -0,0 +1,78 @@
+package org.cloudbus.cloudsim.examples;
+
+/**
+ * One VM request read from a trace, together with the work its cloudlet carries.
+ *
+ * The CPU series holds utilization fractions sampled every seriesInterval seconds from
+ * the request's start; a single sample means constant utilization.
+ */
+public class WorkloadItem {
+
+    private final double submitTime;
+    private final int pes;
+    private final double mips;
+    private final int ram;
+    private final long bw;
+    private final long size;
+    private final double duration;
+    private final float[] cpuSeries;
+    private final double seriesInterval;
+
+    public WorkloadItem(double submitTime, int pes, double mips, int ram, long bw, long size, double duration,
+            float[] cpuSeries, double seriesInterval) {
+        this.submitTime = submitTime;
+        this.pes = pes;
+        this.mips = mips;
+        this.ram = ram;
+        this.bw = bw;
+        this.size = size;
+        this.duration = duration;
+        this.cpuSeries = cpuSeries;
+        this.seriesInterval = seriesInterval;
+    }
+
+    /** Trace time of the request in seconds. */
+    public double getSubmitTime() {
+        return submitTime;
+    }
+
+    public int getPes() {
+        return pes;
+    }
+
+    public double getMips() {
+        return mips;
+    }
+
+    public int getRam() {
+        return ram;
+    }
+
+    public long getBw() {
+        return bw;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /** Lifetime of the request in the trace, in seconds. */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Cloudlet length that keeps the VM busy for its trace lifetime when it runs uncontended.
+     */
+    public long getLength() {
+        return Math.max(1, Math.round(duration * mips * pes));
+    }
+
+    public float[] getCpuSeries() {
+        return cpuSeries;
+    }
+
+    public double getSeriesInterval() {
+        return seriesInterval;
+    }
+}
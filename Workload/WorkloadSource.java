@@ -0,0 +1,16 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A stream of workload items in non-decreasing submit time order. Items are produced on
+ * demand, so a source only holds what the consumer has not yet asked for.
+ */
+public interface WorkloadSource extends Closeable {
+
+    /**
+     * @return the next item, or null when the trace is exhausted
+     */
+    WorkloadItem next() throws IOException;
+}
@@ -0,0 +1,11 @@
+package org.cloudbus.cloudsim.examples;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
+/**
+ * Events a StreamingBroker sends to itself.
+ */
+public enum WorkloadTags implements CloudSimTags {
+    /** Read the trace up to the current simulation time and submit what is due. */
+    FETCH_WORKLOAD
+}
@@ -0,0 +1,221 @@
+package org.cloudbus.cloudsim.examples;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Placement throughput of the Baseline, Heuristic, BasicAuction and TokenAuction paths.
+ *
+ * One operation places the whole batch of "vms" VMs on a fleet of "hosts" hosts, so
+ * placements per second are ops/s x vms. Host state is restored after every operation.
+ *
+ * Build and run from the repository root:
+ *   mvn -pl benchmarks -am package
+ *   java -jar benchmarks/target/benchmarks.jar PlacementBenchmark -prof gc -rf csv -rff placement.csv
+ * -prof gc reports the allocation rate (gc.alloc.rate.norm is bytes per operation, divide
+ * by vms for bytes per placement). Plotting the score against the hosts parameter gives
+ * the scaling curve; narrow the sweep with e.g. -p hosts=10,1000 -p vms=100.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlacementBenchmark {
+
+    private static final double INITIAL_TOKENS = 1000.0;
+
+    @State(Scope.Benchmark)
+    public static class BaselineFleet {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int hosts;
+
+        @Param({"10", "100", "1000"})
+        public int vms;
+
+        List<Host> hostList;
+        List<Vm> vmList;
+        VmAllocationPolicySimple policy;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Log.disable();
+            hostList = createHosts(hosts, HostKind.PLAIN);
+            vmList = createVms(vms, 0);
+            policy = new VmAllocationPolicySimple(hostList);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HeuristicFleet {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int hosts;
+
+        @Param({"10", "100", "1000"})
+        public int vms;
+
+        List<Host> hostList;
+        List<Vm> vmList;
+        HeuristicVmAllocationPolicy policy;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Log.disable();
+            hostList = createHosts(hosts, HostKind.PLAIN);
+            vmList = createVms(vms, 0);
+            policy = new HeuristicVmAllocationPolicy(hostList);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BasicAuctionFleet {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int hosts;
+
+        @Param({"10", "100", "1000"})
+        public int vms;
+
+        List<Host> hostList;
+        BasicAuctionBroker broker;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Log.disable();
+            CloudSim.init(1, Calendar.getInstance(), false);
+            hostList = createHosts(hosts, HostKind.BASIC_BIDDING);
+            broker = new BasicAuctionBroker("BenchmarkBasicAuctionBroker");
+            broker.submitGuestList(createVms(vms, broker.getId()));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TokenAuctionFleet {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int hosts;
+
+        @Param({"10", "100", "1000"})
+        public int vms;
+
+        List<Host> hostList;
+        TokenAuctionBroker broker;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Log.disable();
+            CloudSim.init(1, Calendar.getInstance(), false);
+            hostList = createHosts(hosts, HostKind.TOKEN_BIDDING);
+            broker = new TokenAuctionBroker("BenchmarkTokenAuctionBroker");
+            broker.submitGuestList(createVms(vms, broker.getId()));
+        }
+
+        /** Refills every host so each operation starts from the same balances. */
+        @Setup(Level.Invocation)
+        public void resetTokens() {
+            for (Host host : hostList) {
+                TokenBiddingHost biddingHost = (TokenBiddingHost) host;
+                biddingHost.deductTokens(biddingHost.getTokenBalance() - INITIAL_TOKENS);
+            }
+        }
+    }
+
+    @Benchmark
+    public void baselineVmAllocationPolicySimple(BaselineFleet fleet, Blackhole blackhole) {
+        for (Vm vm : fleet.vmList) {
+            blackhole.consume(fleet.policy.allocateHostForVm(vm));
+        }
+        for (Vm vm : fleet.vmList) {
+            fleet.policy.deallocateHostForVm(vm);
+        }
+    }
+
+    @Benchmark
+    public void heuristicFindHostForVm(HeuristicFleet fleet, Blackhole blackhole) {
+        for (Vm vm : fleet.vmList) {
+            Host host = fleet.policy.findHostForVm(vm);
+            if (host != null) {
+                fleet.policy.allocateHostForVm(vm, host);
+            }
+            blackhole.consume(host);
+        }
+        for (Vm vm : fleet.vmList) {
+            fleet.policy.deallocateHostForVm(vm);
+        }
+    }
+
+    @Benchmark
+    public void basicAuctionPlaceVms(BasicAuctionFleet fleet) {
+        fleet.broker.placeVmsUsingAuction(fleet.hostList);
+    }
+
+    @Benchmark
+    public void tokenAuctionPlaceVms(TokenAuctionFleet fleet) {
+        fleet.broker.placeVmsUsingTokenAuction(fleet.hostList);
+    }
+
+    private enum HostKind {
+        PLAIN, BASIC_BIDDING, TOKEN_BIDDING
+    }
+
+    // Same host shape as the auction simulations: 2 PEs of 2000 MIPS, 8 GB RAM
+    private static List<Host> createHosts(int count, HostKind kind) {
+        List<Host> hostList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Pe> peList = new ArrayList<>();
+            peList.add(new Pe(0, new PeProvisionerSimple(2000)));
+            peList.add(new Pe(1, new PeProvisionerSimple(2000)));
+            RamProvisionerSimple ram = new RamProvisionerSimple(8192);
+            BwProvisionerSimple bw = new BwProvisionerSimple(10000);
+            VmSchedulerTimeShared scheduler = new VmSchedulerTimeShared(peList);
+            switch (kind) {
+                case BASIC_BIDDING:
+                    hostList.add(new BasicBiddingHost(i, ram, bw, 1000000, peList, scheduler));
+                    break;
+                case TOKEN_BIDDING:
+                    hostList.add(new TokenBiddingHost(i, ram, bw, 1000000, peList, scheduler, INITIAL_TOKENS));
+                    break;
+                default:
+                    hostList.add(new TrackedHost(i, ram, bw, 1000000, peList, scheduler));
+                    break;
+            }
+        }
+        return hostList;
+    }
+
+    private static List<Vm> createVms(int count, int brokerId) {
+        List<Vm> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(new Vm(i, brokerId, 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+        }
+        return list;
+    }
+}